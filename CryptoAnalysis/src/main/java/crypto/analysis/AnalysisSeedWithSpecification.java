@@ -6,13 +6,10 @@ import boomerang.scene.ControlFlowGraph;
 import boomerang.scene.DeclaredMethod;
 import boomerang.scene.Statement;
 import boomerang.scene.Val;
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Lists;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import crypto.analysis.errors.AbstractError;
-import crypto.analysis.errors.ForbiddenMethodError;
 import crypto.analysis.errors.IncompleteOperationError;
 import crypto.analysis.errors.RequiredPredicateError;
 import crypto.analysis.errors.TypestateError;
@@ -22,16 +19,17 @@ import crypto.extractparameter.CallSiteWithParamIndex;
 import crypto.extractparameter.ExtractParameterAnalysis;
 import crypto.extractparameter.ExtractedValue;
 import crypto.rules.CrySLCondPredicate;
-import crypto.rules.CrySLForbiddenMethod;
 import crypto.rules.CrySLMethod;
 import crypto.rules.CrySLObject;
 import crypto.rules.CrySLPredicate;
 import crypto.rules.CrySLRule;
+import crypto.rules.CrySLSplitter;
 import crypto.rules.ICrySLPredicateParameter;
 import crypto.rules.ISLConstraint;
 import crypto.rules.StateNode;
 import crypto.rules.TransitionEdge;
 import crypto.typestate.ReportingErrorStateNode;
+import crypto.typestate.TypestateChanges;
 import crypto.typestate.WrappedState;
 import crypto.utils.MatcherUtils;
 import typestate.TransitionFunction;
@@ -41,13 +39,14 @@ import typestate.finiteautomata.State;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -58,8 +57,16 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	private ExtractParameterAnalysis parameterAnalysis;
 	private ConstraintSolver constraintSolver;
 	private boolean internalConstraintsSatisfied;
+	private RequiredPredicateTracker requiredPredicateTracker;
 
-	private final Multimap<Statement, State> typeStateChange = HashMultimap.create();
+	// Results of the predicate conditions for the current constraint solver. Conditions are compared by
+	// identity because predicates are equal if they have the same name.
+	private final Map<ISLConstraint, Boolean> predConditionResults = new IdentityHashMap<>();
+
+	// Predicates are compared by their name, so the expected values are stored per instance
+	private final Map<CrySLPredicate, Map<Integer, Collection<String>>> expectedPredicateValues = new IdentityHashMap<>();
+
+	private final TypestateChanges typeStateChange = new TypestateChanges();
 	private Map<ControlFlowGraph.Edge, DeclaredMethod> allCallsOnObject;
 
 	private final Map<Statement, Set<Map.Entry<EnsuredCrySLPredicate, Integer>>> ensuredPredicates = new HashMap<>();
@@ -99,7 +106,9 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		evaluateTypestateOrder();
 		evaluateIncompleteOperations();
 
-		// Check the REQUIRES section and ensure predicates in ENSURES section
+		// Check the REQUIRES section and ensure predicates in ENSURES section. This includes all
+		// predicates that arrived so far, so the seed does not have to be recomputed for them.
+		scanner.getPredicateFixpoint().unschedule(this);
 		checkConstraintsAndEnsurePredicates();
 
 		scanner.getAnalysisReporter().onSeedFinished(this);
@@ -134,29 +143,14 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	 * Check the FORBIDDEN section and report corresponding errors
 	 */
 	private void evaluateForbiddenMethods() {
-		for (Map.Entry<ControlFlowGraph.Edge, DeclaredMethod> calledMethod : allCallsOnObject.entrySet()) {
-			Optional<CrySLForbiddenMethod> forbiddenMethod = isForbiddenMethod(calledMethod.getValue());
-
-			if (forbiddenMethod.isPresent()) {
-				Collection<CrySLMethod> alternatives = forbiddenMethod.get().getAlternatives();
-				Statement statement = calledMethod.getKey().getStart();
-				DeclaredMethod declaredMethod = calledMethod.getValue();
-
-				ForbiddenMethodError error = new ForbiddenMethodError(this, statement, specification, declaredMethod, alternatives);
-				scanner.getAnalysisReporter().reportError(this, error);
-			}
-		}
-	}
+		// The errors are reported by the ForbiddenMethodSweep before the seeds are executed
+		ForbiddenMethodSweep forbiddenMethodSweep = scanner.getForbiddenMethodSweep();
 
-	private Optional<CrySLForbiddenMethod> isForbiddenMethod(DeclaredMethod declaredMethod) {
-		Collection<CrySLForbiddenMethod> forbiddenMethods = specification.getForbiddenMethods();
-
-		for (CrySLForbiddenMethod method : forbiddenMethods) {
-			if (MatcherUtils.matchCryslMethodAndDeclaredMethod(method.getMethod(), declaredMethod)) {
-				return Optional.of(method);
+		for (ControlFlowGraph.Edge calledMethod : allCallsOnObject.keySet()) {
+			if (forbiddenMethodSweep.isForbiddenCall(calledMethod.getStart(), specification)) {
+				setSecure(false);
 			}
 		}
-		return Optional.empty();
 	}
 
 	private void evaluateTypestateOrder() {
@@ -185,10 +179,10 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 			}
 
 			if (allTypestateChangeStatements.contains(curr)) {
-				Collection<? extends State> targetStates = getTargetStates(c.getValue());
-
-				for (State newStateAtCurr : targetStates) {
-					typeStateChangeAtStatement(errorStatement, newStateAtCurr);
+				for (ITransition t : c.getValue().values()) {
+					if (t.to() != null) {
+						typeStateChangeAtStatement(errorStatement, t.to());
+					}
 				}
 			}
 		}
@@ -314,8 +308,8 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	 * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * * */
 
 	/**
-	 * Add an ensured predicate to the seed and implicitly rerun all constraint and
-	 * predicate checks
+	 * Add an ensured predicate to the seed and schedule the seed to rerun all constraint and
+	 * predicate checks (see {@link PredicateFixpoint})
 	 *
 	 * @param ensPred the ensured predicate
 	 * @param statement the statement where the predicate should be ensured
@@ -330,42 +324,58 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 
 		Map.Entry<EnsuredCrySLPredicate, Integer> predAtIndex = new AbstractMap.SimpleEntry<>(ensPred, paramIndex);
 		if (ensuredPredicates.computeIfAbsent(statement, k -> new HashSet<>()).add(predAtIndex)) {
-			checkConstraintsAndEnsurePredicates();
+			if (requiredPredicateTracker != null) {
+				requiredPredicateTracker.onPredicateEnsured(statement, ensPred, paramIndex);
+			}
+			scanner.getPredicateFixpoint().schedule(this);
 		}
 	}
 
+	/**
+	 * Rerun the constraint and predicate checks after new predicates arrived
+	 */
+	void recomputePredicates() {
+		checkConstraintsAndEnsurePredicates();
+	}
+
 	private void checkConstraintsAndEnsurePredicates() {
 		boolean satisfiesConstraintSystem = isConstraintSystemSatisfied();
 
 		for (CrySLPredicate predToBeEnsured : specification.getPredicates()) {
-			boolean isPredicateGeneratingStateAvailable = false;
-			for (Map.Entry<Statement, State> entry : typeStateChange.entries()) {
-				Statement statement = entry.getKey();
-				State state = entry.getValue();
-
-				// Check, whether the predicate should be generated in state
-				if (!isPredicateGeneratingState(predToBeEnsured, state)) {
-					continue;
+			// Evaluate the state conditions once per compiled state instead of once per typestate change
+			BitSet generatingStates = new BitSet(typeStateChange.getNumberOfStates());
+			for (int id = 0; id < typeStateChange.getNumberOfStates(); id++) {
+				State state = typeStateChange.getState(id);
+
+				// Check, whether the predicate should be generated in state and is not negated in state
+				if (isPredicateGeneratingState(predToBeEnsured, state) && !isPredicateNegatingState(predToBeEnsured, state)) {
+					generatingStates.set(id);
 				}
+			}
 
-				// Check, whether the predicate is not negated in state
-				if (isPredicateNegatingState(predToBeEnsured, state)) {
-					continue;
-				}
+			boolean isPredicateGeneratingStateAvailable = false;
+			for (Statement statement : typeStateChange.getStatements()) {
+				BitSet statesAtStatement = typeStateChange.getStateIds(statement);
 
-				isPredicateGeneratingStateAvailable = true;
-				EnsuredCrySLPredicate ensPred;
-				if (!satisfiesConstraintSystem && predToBeEnsured.getConstraint().isEmpty()) {
-					// predicate has no condition, but the constraint system is not satisfied
-					ensPred = new HiddenPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues(), this, HiddenPredicate.HiddenPredicateType.ConstraintsAreNotSatisfied);
-				} else if (predToBeEnsured.getConstraint().isPresent() && !isPredConditionSatisfied(predToBeEnsured)) {
-					// predicate has condition, but condition is not satisfied
-					ensPred = new HiddenPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues(), this, HiddenPredicate.HiddenPredicateType.ConditionIsNotSatisfied);
-				} else {
-					// constraints are satisfied and predicate has no condition or the condition is satisfied
-					ensPred = new EnsuredCrySLPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues());
+				for (int id = statesAtStatement.nextSetBit(0); id >= 0; id = statesAtStatement.nextSetBit(id + 1)) {
+					if (!generatingStates.get(id)) {
+						continue;
+					}
+
+					isPredicateGeneratingStateAvailable = true;
+					EnsuredCrySLPredicate ensPred;
+					if (!satisfiesConstraintSystem && predToBeEnsured.getConstraint().isEmpty()) {
+						// predicate has no condition, but the constraint system is not satisfied
+						ensPred = new HiddenPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues(), this, HiddenPredicate.HiddenPredicateType.ConstraintsAreNotSatisfied);
+					} else if (predToBeEnsured.getConstraint().isPresent() && !isPredConditionSatisfied(predToBeEnsured)) {
+						// predicate has condition, but condition is not satisfied
+						ensPred = new HiddenPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues(), this, HiddenPredicate.HiddenPredicateType.ConditionIsNotSatisfied);
+					} else {
+						// constraints are satisfied and predicate has no condition or the condition is satisfied
+						ensPred = new EnsuredCrySLPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues());
+					}
+					ensurePredicate(ensPred, statement, typeStateChange.getState(id));
 				}
-				ensurePredicate(ensPred, statement, entry.getValue());
 			}
 
 			if (parameterAnalysis != null && !isPredicateGeneratingStateAvailable) {
@@ -375,11 +385,12 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 				 */
 				HiddenPredicate hiddenPredicate = new HiddenPredicate(predToBeEnsured, parameterAnalysis.getCollectedValues(), this, HiddenPredicate.HiddenPredicateType.GeneratingStateIsNeverReached);
 
-				for (Map.Entry<Statement, State> entry : typeStateChange.entries()) {
-					Statement statement = entry.getKey();
-					State state = entry.getValue();
+				for (Statement statement : typeStateChange.getStatements()) {
+					BitSet statesAtStatement = typeStateChange.getStateIds(statement);
 
-					ensurePredicate(hiddenPredicate, statement, state);
+					for (int id = statesAtStatement.nextSetBit(0); id >= 0; id = statesAtStatement.nextSetBit(id + 1)) {
+						ensurePredicate(hiddenPredicate, statement, typeStateChange.getState(id));
+					}
 				}
 			}
 		}
@@ -462,16 +473,12 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	}
 
 	private boolean containsTargetState(TransitionFunction value, State stateNode) {
-		return getTargetStates(value).contains(stateNode);
-	}
-
-	private Collection<? extends State> getTargetStates(TransitionFunction value) {
-		Collection<State> res = Sets.newHashSet();
 		for (ITransition t : value.values()) {
-			if (t.to() != null)
-				res.add(t.to());
+			if (stateNode.equals(t.to())) {
+				return true;
+			}
 		}
-		return res;
+		return false;
 	}
 
 	/**
@@ -482,18 +489,16 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	 * @param fact holds the value for the other seed's type
 	 */
 	private void expectPredicateOnOtherObject(EnsuredCrySLPredicate ensPred, Statement statement, Val fact) {
-		for (IAnalysisSeed otherSeed : scanner.getDiscoveredSeeds()) {
-			if (otherSeed.getFact().equals(fact) && otherSeed.getOrigin().equals(statement)) {
-				if (otherSeed instanceof AnalysisSeedWithSpecification) {
-					AnalysisSeedWithSpecification seedWithSpec = (AnalysisSeedWithSpecification) otherSeed;
+		for (IAnalysisSeed otherSeed : scanner.getSeedIndex().getSeeds(statement, fact)) {
+			if (otherSeed instanceof AnalysisSeedWithSpecification) {
+				AnalysisSeedWithSpecification seedWithSpec = (AnalysisSeedWithSpecification) otherSeed;
 
-					seedWithSpec.addEnsuredPredicateFromOtherRule(ensPred);
-				} else if (otherSeed instanceof AnalysisSeedWithEnsuredPredicate) {
-					AnalysisSeedWithEnsuredPredicate seedWithoutSpec = (AnalysisSeedWithEnsuredPredicate) otherSeed;
+				seedWithSpec.addEnsuredPredicateFromOtherRule(ensPred);
+			} else if (otherSeed instanceof AnalysisSeedWithEnsuredPredicate) {
+				AnalysisSeedWithEnsuredPredicate seedWithoutSpec = (AnalysisSeedWithEnsuredPredicate) otherSeed;
 
-					seedWithoutSpec.addEnsuredPredicate(ensPred);
-					predicateHandler.expectPredicate(seedWithoutSpec, statement, ensPred.getPredicate());
-				}
+				seedWithoutSpec.addEnsuredPredicate(ensPred);
+				predicateHandler.expectPredicate(seedWithoutSpec, statement, ensPred.getPredicate());
 			}
 		}
 	}
@@ -536,9 +541,12 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		 * and ensure it in all accepting states that do not negate it
 		 */
 		for (Table.Cell<ControlFlowGraph.Edge, Val, TransitionFunction> c : analysisResults.asStatementValWeightTable().cellSet()) {
-			Collection<? extends State> states = getTargetStates(c.getValue());
+			for (ITransition t : c.getValue().values()) {
+				State state = t.to();
+				if (state == null) {
+					continue;
+				}
 
-			for (State state : states) {
 				if (isPredicateNegatingState(predWithThis.getPredicate(), state)) {
 					continue;
 				}
@@ -642,6 +650,9 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		scanner.getAnalysisReporter().beforeConstraintsCheck(this);
 
 		constraintSolver = new ConstraintSolver(this, allCallsOnObject.keySet(), scanner.getAnalysisReporter());
+		predConditionResults.clear();
+		expectedPredicateValues.clear();
+		initRequiredPredicateTracker();
 		int violatedConstraints = constraintSolver.evaluateRelConstraints();
 
 		scanner.getAnalysisReporter().checkedConstraints(this, constraintSolver.getRelConstraints());
@@ -663,94 +674,55 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 		return false;
 	}
 
+	/**
+	 * Track the required predicates of the current constraint solver, including the predicates that
+	 * were ensured before the solver was created
+	 */
+	private void initRequiredPredicateTracker() {
+		requiredPredicateTracker = new RequiredPredicateTracker(this, constraintSolver.getRequiredPredicates());
+
+		for (Map.Entry<Statement, Set<Map.Entry<EnsuredCrySLPredicate, Integer>>> entry : ensuredPredicates.entrySet()) {
+			for (Map.Entry<EnsuredCrySLPredicate, Integer> predAtIndex : entry.getValue()) {
+				requiredPredicateTracker.onPredicateEnsured(entry.getKey(), predAtIndex.getKey(), predAtIndex.getValue());
+			}
+		}
+	}
+
 	/**
 	 * Check, whether all required predicates are satisfied, and return a set with all predicates that are not
-	 * satisfied. If the set is empty, all required predicate constraints are satisfied.
+	 * satisfied. If the set is empty, all required predicate constraints are satisfied. The satisfaction of
+	 * the required predicates is updated when predicates are ensured (see {@link RequiredPredicateTracker}).
 	 *
 	 * @return remainingPredicates predicates that are not satisfied
 	 */
 	public Collection<ISLConstraint> computeMissingPredicates() {
-		Collection<ISLConstraint> requiredPredicates = constraintSolver.getRequiredPredicates();
-		Collection<ISLConstraint> remainingPredicates = new HashSet<>(requiredPredicates);
-
-		for (ISLConstraint pred : requiredPredicates) {
-			Set<Map.Entry<EnsuredCrySLPredicate, Integer>> predsAtStatement = ensuredPredicates.getOrDefault(pred.getLocation(), new HashSet<>());
-
-			if (pred instanceof RequiredCrySLPredicate) {
-				RequiredCrySLPredicate reqPred = (RequiredCrySLPredicate) pred;
-				int reqParamIndex = reqPred.getParamIndex();
-
-				if (reqPred.getPred().isNegated()) {
-					// Check for negated predicates, e.g. !randomized
-					boolean violated = false;
-
-					// Negated predicates are violated if the corresponding predicate is ensured
-					for (Map.Entry<EnsuredCrySLPredicate, Integer> ensPredAtIndex : predsAtStatement) {
-						if (doReqPredAndEnsPredMatch(reqPred.getPred(), reqParamIndex, ensPredAtIndex)) {
-							violated = true;
-						}
-					}
-
-					if (!violated) {
-						remainingPredicates.remove(pred);
-					}
-				} else {
-					// Check for basic required predicates, e.g. randomized
-					for (Map.Entry<EnsuredCrySLPredicate, Integer> ensPredAtIndex : predsAtStatement) {
-						if (doReqPredAndEnsPredMatch(reqPred.getPred(), reqParamIndex, ensPredAtIndex)) {
-							remainingPredicates.remove(pred);
-						}
-					}
-				}
-			} else if (pred instanceof AlternativeReqPredicate) {
-				AlternativeReqPredicate altPred = (AlternativeReqPredicate) pred;
-				Collection<CrySLPredicate> alternatives = altPred.getAlternatives();
-				Collection<CrySLPredicate> positives = alternatives.stream().filter(e -> !e.isNegated()).collect(Collectors.toList());
-				Collection<CrySLPredicate> negatives = alternatives.stream().filter(CrySLPredicate::isNegated).collect(Collectors.toList());
-				int altParamIndex = altPred.getParamIndex();
-
-				boolean satisfied = false;
-				Collection<CrySLPredicate> ensuredNegatives = alternatives.stream().filter(CrySLPredicate::isNegated).collect(Collectors.toList());
-
-				for (Map.Entry<EnsuredCrySLPredicate, Integer> ensPredAtIndex : predsAtStatement) {
-					// If any positive alternative is satisfied, the whole predicate is satisfied
-					if (positives.stream().anyMatch(e -> doReqPredAndEnsPredMatch(e, altParamIndex, ensPredAtIndex))) {
-						satisfied = true;
-					}
-
-					// Remove all negated alternatives that are ensured
-					Collection<CrySLPredicate> violatedNegAlternatives = negatives.stream().filter(e -> doReqPredAndEnsPredMatch(e, altParamIndex, ensPredAtIndex)).collect(Collectors.toList());
-					ensuredNegatives.removeAll(violatedNegAlternatives);
-				}
-
-				if (satisfied || !ensuredNegatives.isEmpty()) {
-					remainingPredicates.remove(pred);
-				}
-			}
+		if (requiredPredicateTracker == null) {
+			// The seed has not been executed
+			return Collections.emptySet();
 		}
+		return requiredPredicateTracker.getMissingPredicates();
+	}
 
-		// Check conditional required predicates
-		for (ISLConstraint rem : new HashSet<>(remainingPredicates)) {
-			if (rem instanceof RequiredCrySLPredicate) {
-				RequiredCrySLPredicate singlePred = (RequiredCrySLPredicate) rem;
-
-				if (isPredConditionSatisfied(singlePred.getPred())) {
-					remainingPredicates.remove(singlePred);
-				}
-			} else if (rem instanceof AlternativeReqPredicate) {
-				Collection<CrySLPredicate> altPred = ((AlternativeReqPredicate) rem).getAlternatives();
-
-				if (altPred.parallelStream().anyMatch(this::isPredConditionSatisfied)) {
-					remainingPredicates.remove(rem);
-				}
-			}
+	/**
+	 * Evaluate the conditions of the required predicates that are not ensured. The evaluation may
+	 * run Boomerang queries, so it is done before the missing predicates are computed concurrently.
+	 */
+	void evaluateRequiredPredicateConditions() {
+		if (requiredPredicateTracker != null) {
+			requiredPredicateTracker.evaluateConditions();
 		}
-
-		return remainingPredicates;
 	}
 
-	private boolean doReqPredAndEnsPredMatch(CrySLPredicate reqPred, int reqPredIndex, Map.Entry<EnsuredCrySLPredicate, Integer> ensPred) {
-		return reqPred.equals(ensPred.getKey().getPredicate()) && doPredsMatch(reqPred, ensPred.getKey()) && reqPredIndex == ensPred.getValue();
+	/**
+	 * Check, whether an ensured predicate matches a required predicate. The parameter indices have
+	 * to be compared before.
+	 *
+	 * @param reqPred the required predicate
+	 * @param ensPred the ensured predicate
+	 * @return true if the predicates and their values match
+	 */
+	boolean doReqPredAndEnsPredMatch(CrySLPredicate reqPred, EnsuredCrySLPredicate ensPred) {
+		return reqPred.equals(ensPred.getPredicate()) && doPredsMatch(reqPred, ensPred);
 	}
 
 	/**
@@ -759,12 +731,29 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	 * @param pred the predicate to be checked
 	 * @return true if the condition is satisfied
 	 */
-	private boolean isPredConditionSatisfied(CrySLPredicate pred) {
-		return pred.getConstraint().map(conditional -> {
-			EvaluableConstraint evalCons = EvaluableConstraint.getInstance(conditional, constraintSolver);
-			evalCons.evaluate();
-			return evalCons.hasErrors();
-		}).orElse(false);
+	boolean isPredConditionSatisfied(CrySLPredicate pred) {
+		return pred.getConstraint().map(this::evaluatePredCondition).orElse(false);
+	}
+
+	/**
+	 * Evaluate a predicate condition once per constraint solver. The condition only depends on the
+	 * extracted values and calls of this seed, so the result does not change when new predicates arrive.
+	 *
+	 * @param conditional the condition
+	 * @return true if the evaluation of the condition reported errors
+	 */
+	private boolean evaluatePredCondition(ISLConstraint conditional) {
+		Boolean result = predConditionResults.get(conditional);
+		if (result != null) {
+			return result;
+		}
+
+		EvaluableConstraint evalCons = EvaluableConstraint.getInstance(conditional, constraintSolver);
+		evalCons.evaluate();
+		result = evalCons.hasErrors();
+
+		predConditionResults.put(conditional, result);
+		return result;
 	}
 
 	public Collection<AbstractError> retrieveErrorsForPredCondition(CrySLPredicate pred) {
@@ -779,54 +768,82 @@ public class AnalysisSeedWithSpecification extends IAnalysisSeed {
 	}
 
 	private boolean doPredsMatch(CrySLPredicate pred, EnsuredCrySLPredicate ensPred) {
-		boolean requiredPredicatesExist = true;
 		for (int i = 0; i < pred.getParameters().size(); i++) {
 			String var = pred.getParameters().get(i).getName();
 			if (isOfNonTrackableType(var)) {
 				continue;
-			} else if (pred.getInvolvedVarNames().contains(var)) {
+			} else if (!pred.getInvolvedVarNames().contains(var)) {
+				return false;
+			}
 
-				final String parameterI = ensPred.getPredicate().getParameters().get(i).getName();
-				Collection<String> actVals = Collections.emptySet();
-				Collection<String> expVals = Collections.emptySet();
+			Collection<String> expVals = getExpectedPredicateValues(pred, i);
+			if (expVals.isEmpty()) {
+				continue;
+			}
 
-				for (CallSiteWithParamIndex cswpi : ensPred.getParametersToValues().keySet()) {
-					if (cswpi.getVarName().equals(parameterI)) {
-						actVals = retrieveValueFromUnit(cswpi, ensPred.getParametersToValues().get(cswpi));
-					}
-				}
-				for (CallSiteWithParamIndex cswpi : parameterAnalysis.getCollectedValues().keySet()) {
-					if (cswpi.getVarName().equals(var)) {
-						expVals = retrieveValueFromUnit(cswpi, parameterAnalysis.getCollectedValues().get(cswpi));
-					}
+			final String parameterI = ensPred.getPredicate().getParameters().get(i).getName();
+			Collection<String> actVals = Collections.emptySet();
+
+			for (CallSiteWithParamIndex cswpi : ensPred.getParametersToValues().keySet()) {
+				if (cswpi.getVarName().equals(parameterI)) {
+					actVals = retrieveValueFromUnit(cswpi, ensPred.getParametersToValues().get(cswpi));
 				}
+			}
 
-				String splitter = "";
-				int index = -1;
-				if (pred.getParameters().get(i) instanceof CrySLObject) {
-					CrySLObject obj = (CrySLObject) pred.getParameters().get(i);
-					if (obj.getSplitter() != null) {
-						splitter = obj.getSplitter().getSplitter();
-						index = obj.getSplitter().getIndex();
-					}
+			Set<String> lowerCaseActVals = new HashSet<>();
+			for (String actVal : actVals) {
+				lowerCaseActVals.add(actVal.toLowerCase());
+			}
+
+			if (!lowerCaseActVals.containsAll(expVals)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the values that this seed expects for a parameter of a required predicate, with the
+	 * parameter's splitter applied and in lower case. The values only depend on the extracted values
+	 * of this seed, so they are computed once per constraint solver.
+	 *
+	 * @param pred the required predicate
+	 * @param index the parameter index
+	 * @return the expected values
+	 */
+	private Collection<String> getExpectedPredicateValues(CrySLPredicate pred, int index) {
+		Map<Integer, Collection<String>> valuesPerIndex = expectedPredicateValues.computeIfAbsent(pred, k -> new HashMap<>());
+
+		return valuesPerIndex.computeIfAbsent(index, k -> {
+			String var = pred.getParameters().get(index).getName();
+			Collection<String> expVals = Collections.emptySet();
+
+			for (CallSiteWithParamIndex cswpi : parameterAnalysis.getCollectedValues().keySet()) {
+				if (cswpi.getVarName().equals(var)) {
+					expVals = retrieveValueFromUnit(cswpi, parameterAnalysis.getCollectedValues().get(cswpi));
 				}
-				for (String foundVal : expVals) {
-					if (index > -1) {
-						foundVal = foundVal.split(splitter)[index];
-					}
-					actVals = actVals.parallelStream().map(String::toLowerCase).collect(Collectors.toList());
-					requiredPredicatesExist &= actVals.contains(foundVal.toLowerCase());
+			}
+
+			CrySLSplitter splitter = null;
+			if (pred.getParameters().get(index) instanceof CrySLObject) {
+				splitter = ((CrySLObject) pred.getParameters().get(index)).getSplitter();
+			}
+
+			Set<String> result = new HashSet<>();
+			for (String foundVal : expVals) {
+				if (splitter != null) {
+					foundVal = splitter.getElement(foundVal);
 				}
-			} else {
-				requiredPredicatesExist = false;
+				result.add(foundVal.toLowerCase());
 			}
-		}
-		return requiredPredicatesExist;
+			return result;
+		});
 	}
 
 	public void addHiddenPredicatesToError(RequiredPredicateError reqPredError) {
 		for (CrySLPredicate pred : reqPredError.getContradictedPredicates()) {
-			Collection<HiddenPredicate> hiddenPredicatesEnsuringReqPred = hiddenPredicates.parallelStream().filter(p -> p.getPredicate().equals(pred) && doPredsMatch(pred, p)).collect(Collectors.toList());
+			// The expected values are cached per seed, so the hidden predicates are matched sequentially
+			Collection<HiddenPredicate> hiddenPredicatesEnsuringReqPred = hiddenPredicates.stream().filter(p -> p.getPredicate().equals(pred) && doPredsMatch(pred, p)).collect(Collectors.toList());
 			reqPredError.addHiddenPredicates(hiddenPredicatesEnsuringReqPred);
 		}
 	}
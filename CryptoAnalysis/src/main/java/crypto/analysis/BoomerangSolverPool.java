@@ -0,0 +1,233 @@
+package crypto.analysis;
+
+import boomerang.BackwardQuery;
+import boomerang.Boomerang;
+import boomerang.BoomerangOptions;
+import boomerang.DefaultBoomerangOptions;
+import boomerang.ForwardQuery;
+import boomerang.results.BackwardBoomerangResults;
+import boomerang.results.ForwardBoomerangResults;
+import boomerang.scene.jimple.IntAndStringBoomerangOptions;
+import crypto.extractparameter.ExtractParameterOptions;
+import crypto.extractparameter.ExtractionTier;
+import wpds.impl.Weight.NoWeight;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Pool of long-lived {@link Boomerang} solvers that are shared by all queries of a scan. Reusing a
+ * solver keeps its saturated pushdown systems and method summaries, so queries that traverse the
+ * same methods do not recompute their flows. There is one solver per {@link SolverType} because the
+ * types use different options. To bound the memory, a solver is retired after a fixed number of
+ * queries or if the heap usage exceeds a threshold, and a fresh solver is created on the next query.
+ * A solver is also retired after a query that timed out because its state is incomplete.
+ * If the scanner disables the reuse, each query is solved by its own solver.
+ */
+public class BoomerangSolverPool {
+
+	public enum SolverType {
+		/** Backward queries of the {@link crypto.extractparameter.ExtractParameterAnalysis} in the bounded tier */
+		EXTRACT_PARAMETER_BOUNDED,
+		/** Backward queries of the {@link crypto.extractparameter.ExtractParameterAnalysis} with the full timeout */
+		EXTRACT_PARAMETER,
+		/** Forward queries for allocated arrays */
+		ARRAY_ALLOCATION,
+		/** Backward queries for the values stored in arrays */
+		ARRAY_VALUE
+	}
+
+	private static final int MAX_QUERIES_PER_SOLVER = 1000;
+	private static final double MAX_HEAP_USAGE = 0.8;
+
+	private final CryptoScanner scanner;
+	private final int maxQueriesPerSolver;
+	private final Map<SolverType, Boomerang> solvers = new EnumMap<>(SolverType.class);
+	private final Map<SolverType, Integer> queriesPerSolver = new EnumMap<>(SolverType.class);
+
+	private int solvedQueries = 0;
+	private int createdSolvers = 0;
+	private int retiredSolvers = 0;
+
+	public BoomerangSolverPool(CryptoScanner scanner) {
+		this(scanner, MAX_QUERIES_PER_SOLVER);
+	}
+
+	public BoomerangSolverPool(CryptoScanner scanner, int maxQueriesPerSolver) {
+		this.scanner = scanner;
+		this.maxQueriesPerSolver = maxQueriesPerSolver;
+	}
+
+	/**
+	 * Solve a backward query with the solver of the given type. The results point into the internal
+	 * state of the solver, so they are consumed before the solver may be released, and only the
+	 * consumed values are returned.
+	 *
+	 * @param type the solver type
+	 * @param query the query
+	 * @param consumer the function that extracts the required values from the results
+	 * @param <R> the type of the extracted values
+	 * @return the extracted values
+	 */
+	public synchronized <R> R solve(SolverType type, BackwardQuery query, Function<BackwardBoomerangResults<NoWeight>, R> consumer) {
+		Boomerang solver = getSolver(type);
+		BackwardBoomerangResults<NoWeight> results = solver.solve(query);
+		R values = consumer.apply(results);
+
+		onQuerySolved(type, solver, results.isTimedout());
+		return values;
+	}
+
+	/**
+	 * Solve a forward query with the solver of the given type. As for backward queries, the results
+	 * are consumed before the solver may be released.
+	 *
+	 * @param type the solver type
+	 * @param query the query
+	 * @param consumer the function that extracts the required values from the results
+	 * @param <R> the type of the extracted values
+	 * @return the extracted values
+	 */
+	public synchronized <R> R solve(SolverType type, ForwardQuery query, Function<ForwardBoomerangResults<NoWeight>, R> consumer) {
+		Boomerang solver = getSolver(type);
+		ForwardBoomerangResults<NoWeight> results = solver.solve(query);
+		R values = consumer.apply(results);
+
+		onQuerySolved(type, solver, results.isTimedout());
+		return values;
+	}
+
+	/**
+	 * Solve a single backward query with a new solver that is not part of the pool, e.g. for
+	 * queries that require options with a different timeout. The solver is released after its
+	 * results are consumed.
+	 *
+	 * @param options the options of the solver
+	 * @param query the query
+	 * @param consumer the function that extracts the required values from the results
+	 * @param <R> the type of the extracted values
+	 * @return the extracted values
+	 */
+	public synchronized <R> R solve(BoomerangOptions options, BackwardQuery query, Function<BackwardBoomerangResults<NoWeight>, R> consumer) {
+		Boomerang solver = new Boomerang(scanner.callGraph(), scanner.getDataFlowScope(), options);
+		createdSolvers++;
+
+		R values = consumer.apply(solver.solve(query));
+		solver.unregisterAllListeners();
+
+		solvedQueries++;
+		return values;
+	}
+
+	private Boomerang getSolver(SolverType type) {
+		if (!scanner.reuseBoomerangSolvers()) {
+			createdSolvers++;
+			return createSolver(type, false);
+		}
+
+		Boomerang solver = solvers.get(type);
+		if (solver == null) {
+			solver = createSolver(type, true);
+			solvers.put(type, solver);
+			queriesPerSolver.put(type, 0);
+			createdSolvers++;
+		}
+		return solver;
+	}
+
+	private void onQuerySolved(SolverType type, Boomerang solver, boolean timedOut) {
+		solvedQueries++;
+
+		// Solvers that are not reused are released after their only query
+		if (!scanner.reuseBoomerangSolvers()) {
+			solver.unregisterAllListeners();
+			return;
+		}
+
+		// A timeout aborts the saturation of the solver's pushdown systems, and later queries would
+		// silently reuse the incomplete state
+		if (timedOut) {
+			retireSolver(type);
+			return;
+		}
+
+		int queries = queriesPerSolver.merge(type, 1, Integer::sum);
+		if (queries >= maxQueriesPerSolver || isHeapExhausted()) {
+			retireSolver(type);
+		}
+	}
+
+	/*
+	 * The results of all queries are consumed before the query returns, so nothing refers to the
+	 * internal state of a retired solver and it can be released right away.
+	 */
+	private void retireSolver(SolverType type) {
+		Boomerang solver = solvers.remove(type);
+		queriesPerSolver.remove(type);
+
+		if (solver != null) {
+			solver.unregisterAllListeners();
+			retiredSolvers++;
+		}
+	}
+
+	/**
+	 * Retire all solvers of the pool, e.g. at the end of a scan.
+	 */
+	public synchronized void clear() {
+		for (SolverType type : SolverType.values()) {
+			retireSolver(type);
+		}
+	}
+
+	private Boomerang createSolver(SolverType type, boolean allowMultipleQueries) {
+		return new Boomerang(scanner.callGraph(), scanner.getDataFlowScope(), createOptions(type, allowMultipleQueries));
+	}
+
+	private BoomerangOptions createOptions(SolverType type, boolean allowMultipleQueries) {
+		switch (type) {
+			case EXTRACT_PARAMETER_BOUNDED:
+				return new ExtractParameterOptions(ExtractionTier.BOUNDED.getTimeout(scanner.getTimeout()), allowMultipleQueries);
+			case EXTRACT_PARAMETER:
+				return new ExtractParameterOptions(ExtractionTier.FULL.getTimeout(scanner.getTimeout()), allowMultipleQueries);
+			case ARRAY_ALLOCATION:
+				return new DefaultBoomerangOptions() {
+
+					@Override
+					public boolean allowMultipleQueries() {
+						return allowMultipleQueries;
+					}
+				};
+			case ARRAY_VALUE:
+				return new IntAndStringBoomerangOptions() {
+
+					@Override
+					public boolean allowMultipleQueries() {
+						return allowMultipleQueries;
+					}
+				};
+			default:
+				throw new IllegalArgumentException("Solver type " + type + " is not supported");
+		}
+	}
+
+	private static boolean isHeapExhausted() {
+		Runtime runtime = Runtime.getRuntime();
+		long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+
+		return usedMemory > runtime.maxMemory() * MAX_HEAP_USAGE;
+	}
+
+	public int getSolvedQueries() {
+		return solvedQueries;
+	}
+
+	public int getCreatedSolvers() {
+		return createdSolvers;
+	}
+
+	public int getRetiredSolvers() {
+		return retiredSolvers;
+	}
+}
@@ -5,31 +5,57 @@ import boomerang.scene.CallGraph;
 import boomerang.scene.DataFlowScope;
 import boomerang.scene.Method;
 import boomerang.scene.WrappedClass;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.Table;
 import crypto.analysis.errors.AbstractError;
+import crypto.constraints.ArrayDefinitionIndex;
+import crypto.constraints.ConstraintOutcomeCache;
+import crypto.constraints.ConstraintPlan;
+import crypto.extractparameter.ExtractParameterCache;
+import crypto.extractparameter.ExtractParameterStatistics;
+import crypto.extractparameter.StaticConstantTable;
 import crypto.listener.IAnalysisListener;
 import crypto.listener.IErrorListener;
 import crypto.listener.IResultsListener;
 import crypto.rules.CrySLRule;
 import ideal.IDEALSeedSolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import typestate.TransitionFunction;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public abstract class CryptoScanner {
 
+	private static final Logger LOGGER = LoggerFactory.getLogger(CryptoScanner.class);
+
 	private final AnalysisReporter analysisReporter;
 	private final ErrorCollector errorCollector;
 	private final Collection<CrySLRule> ruleset;
 	private final DataFlowScope dataFlowScope;
-	private final Map<IAnalysisSeed, IAnalysisSeed> discoveredSeeds = new HashMap<>();
+	// Keeps the execution order of the seeds for the predicate checks and reports
+	private final Map<IAnalysisSeed, IAnalysisSeed> discoveredSeeds = new LinkedHashMap<>();
+	private SeedIndex seedIndex = new SeedIndex(Collections.emptyList());
 	private final PredicateHandler predicateHandler = new PredicateHandler(this);
+	private final PredicateFixpoint predicateFixpoint = new PredicateFixpoint();
+	private final PredicateIds predicateIds = new PredicateIds();
+	private final ExtractParameterCache extractParameterCache = new ExtractParameterCache();
+	private final BoomerangSolverPool boomerangSolverPool = new BoomerangSolverPool(this);
+	private final ExtractParameterStatistics extractParameterStatistics = new ExtractParameterStatistics();
+	private final ArrayDefinitionIndex arrayDefinitionIndex = new ArrayDefinitionIndex();
+	private final StaticConstantTable staticConstantTable = new StaticConstantTable();
+	private final Map<CrySLRule, ConstraintPlan> constraintPlans = new ConcurrentHashMap<>();
+	private final ConstraintOutcomeCache constraintOutcomeCache = new ConstraintOutcomeCache();
+	private final ForbiddenMethodSweep forbiddenMethodSweep;
+	private final RuleDependencyGraph ruleDependencyGraph;
 
 	public CryptoScanner(Collection<CrySLRule> rules) {
 		analysisReporter = new AnalysisReporter();
@@ -41,6 +67,12 @@ public abstract class CryptoScanner {
 		addErrorListener(errorCollector);
 
 		ruleset = new HashSet<>(rules);
+		for (CrySLRule rule : ruleset) {
+			constraintPlans.put(rule, ConstraintPlan.compile(rule));
+			predicateIds.intern(rule);
+		}
+		forbiddenMethodSweep = new ForbiddenMethodSweep(this, ruleset);
+		ruleDependencyGraph = new RuleDependencyGraph(ruleset);
 		dataFlowScope = new CryptoAnalysisDataFlowScope(rules, getIgnoredSections());
 	}
 
@@ -48,24 +80,55 @@ public abstract class CryptoScanner {
 		this.getAnalysisReporter().beforeAnalysis();
 
 		SeedGenerator generator = new SeedGenerator(this, ruleset);
-		List<IAnalysisSeed> seeds = new ArrayList<>(generator.computeSeeds());
+		Collection<IAnalysisSeed> generatedSeeds = generator.computeSeeds();
+		predicateFixpoint.setDiscoveryOrder(generatedSeeds);
+
+		// Execute the seeds ensuring predicates before the seeds requiring them
+		List<IAnalysisSeed> seeds = ruleDependencyGraph.sortSeeds(generatedSeeds);
 		this.getAnalysisReporter().onDiscoveredSeeds(seeds);
 
 		for (IAnalysisSeed seed : seeds) {
 			discoveredSeeds.put(seed, seed);
 		}
+		seedIndex = new SeedIndex(discoveredSeeds.keySet());
+
+		// Check the FORBIDDEN sections of all rules in one pass over the call graph
+		forbiddenMethodSweep.sweep();
 
 		this.getAnalysisReporter().addProgress(0, seeds.size());
 		for (int i = 0; i < seeds.size(); i++) {
+			predicateFixpoint.beforeExecution(seeds.get(i));
 			seeds.get(i).execute();
 			this.getAnalysisReporter().addProgress(i + 1, seeds.size());
 		}
 
+		// Propagate the predicates that arrived after the seeds were executed
+		predicateFixpoint.run();
+
 		this.getAnalysisReporter().beforePredicateCheck();
 		predicateHandler.checkPredicates();
 		this.getAnalysisReporter().afterPredicateCheck();
 
 		this.getAnalysisReporter().afterAnalysis();
+		boomerangSolverPool.clear();
+		arrayDefinitionIndex.clear();
+		staticConstantTable.clear();
+		constraintOutcomeCache.clear();
+		logStatistics();
+
+		// The cached extractions reference the statements and values of the scene
+		extractParameterCache.clear();
+	}
+
+	private void logStatistics() {
+		CacheStats extractionStats = extractParameterCache.getStatistics();
+		LOGGER.info("Parameter extraction cache: {} hits, {} misses (hit rate {}), {} evictions", extractionStats.hitCount(), extractionStats.missCount(), String.format("%.2f", extractionStats.hitRate()), extractionStats.evictionCount());
+		LOGGER.info("{}", extractParameterStatistics);
+		LOGGER.info("{}", predicateFixpoint);
+		LOGGER.info("Predicate ids: {} interned predicates", predicateIds.size());
+		LOGGER.info("Forbidden method sweep: {} calls to forbidden methods", forbiddenMethodSweep.getForbiddenCalls());
+		LOGGER.info("Constraint outcome cache: {} hits, {} misses", constraintOutcomeCache.getHits(), constraintOutcomeCache.getMisses());
+		LOGGER.info("Boomerang solvers: {} queries solved by {} solvers ({} retired)", boomerangSolverPool.getSolvedQueries(), boomerangSolverPool.getCreatedSolvers(), boomerangSolverPool.getRetiredSolvers());
 	}
 
 	public abstract CallGraph callGraph();
@@ -107,20 +170,68 @@ public abstract class CryptoScanner {
 	}
 
 	public Collection<AnalysisSeedWithSpecification> getAnalysisSeedsWithSpec() {
-		Collection<AnalysisSeedWithSpecification> seeds = new HashSet<>();
+		return seedIndex.getSeedsWithSpec();
+	}
 
-		for (IAnalysisSeed seed : discoveredSeeds.keySet()) {
-			if (seed instanceof AnalysisSeedWithSpecification) {
-				seeds.add((AnalysisSeedWithSpecification) seed);
-			}
-		}
-		return seeds;
+	public SeedIndex getSeedIndex() {
+		return seedIndex;
 	}
 
 	public PredicateHandler getPredicateHandler() {
 		return predicateHandler;
 	}
 
+	public PredicateFixpoint getPredicateFixpoint() {
+		return predicateFixpoint;
+	}
+
+	public PredicateIds getPredicateIds() {
+		return predicateIds;
+	}
+
+	public RuleDependencyGraph getRuleDependencyGraph() {
+		return ruleDependencyGraph;
+	}
+
+	public ExtractParameterCache getExtractParameterCache() {
+		return extractParameterCache;
+	}
+
+	public BoomerangSolverPool getBoomerangSolverPool() {
+		return boomerangSolverPool;
+	}
+
+	public ExtractParameterStatistics getExtractParameterStatistics() {
+		return extractParameterStatistics;
+	}
+
+	public ArrayDefinitionIndex getArrayDefinitionIndex() {
+		return arrayDefinitionIndex;
+	}
+
+	public StaticConstantTable getStaticConstantTable() {
+		return staticConstantTable;
+	}
+
+	/**
+	 * Returns the constraint plan of the given rule. The plans of the rules in the ruleset are compiled
+	 * when the scanner is created.
+	 *
+	 * @param rule the rule
+	 * @return the constraint plan
+	 */
+	public ConstraintPlan getConstraintPlan(CrySLRule rule) {
+		return constraintPlans.computeIfAbsent(rule, ConstraintPlan::compile);
+	}
+
+	public ConstraintOutcomeCache getConstraintOutcomeCache() {
+		return constraintOutcomeCache;
+	}
+
+	public ForbiddenMethodSweep getForbiddenMethodSweep() {
+		return forbiddenMethodSweep;
+	}
+
 	public Collection<String> getIgnoredSections() {
 		return new ArrayList<>();
 	}
@@ -128,4 +239,14 @@ public abstract class CryptoScanner {
 	public int getTimeout() {
 		return 10000;
 	}
+
+	/**
+	 * Whether the Boomerang queries of a scan are solved by long-lived solvers from the
+	 * {@link BoomerangSolverPool} instead of creating a new solver for each query.
+	 *
+	 * @return true if the solvers should be reused
+	 */
+	public boolean reuseBoomerangSolvers() {
+		return true;
+	}
 }
@@ -0,0 +1,51 @@
+package crypto.analysis;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact storage of the predicates that are ensured at a statement. The predicates are stored as a
+ * bitset of their interned ids (see {@link PredicateIds}), and a side table keeps the first ensured
+ * predicate per id with its parameter bindings. Ensured and hidden predicates with the same id are
+ * different predicates, so they occupy different bits.
+ */
+public class EnsuredPredicates {
+
+	private final BitSet ids = new BitSet();
+	private final Map<Integer, EnsuredCrySLPredicate> bindings = new HashMap<>();
+
+	/**
+	 * Add an ensured predicate.
+	 *
+	 * @param predicateId the interned id of the ensured predicate's predicate
+	 * @param ensPred the ensured predicate
+	 * @return true if no predicate with the same id and kind was ensured before
+	 */
+	public boolean add(int predicateId, EnsuredCrySLPredicate ensPred) {
+		int index = getIndex(predicateId, ensPred);
+
+		if (ids.get(index)) {
+			return false;
+		}
+
+		ids.set(index);
+		bindings.put(index, ensPred);
+		return true;
+	}
+
+	public Collection<EnsuredCrySLPredicate> getPredicates() {
+		Collection<EnsuredCrySLPredicate> result = new ArrayList<>(bindings.size());
+
+		for (int index = ids.nextSetBit(0); index >= 0; index = ids.nextSetBit(index + 1)) {
+			result.add(bindings.get(index));
+		}
+		return result;
+	}
+
+	private static int getIndex(int predicateId, EnsuredCrySLPredicate ensPred) {
+		return 2 * predicateId + (ensPred instanceof HiddenPredicate ? 1 : 0);
+	}
+}
@@ -0,0 +1,216 @@
+package crypto.analysis;
+
+import boomerang.scene.CallGraph;
+import boomerang.scene.ControlFlowGraph;
+import boomerang.scene.DeclaredMethod;
+import boomerang.scene.InvokeExpr;
+import boomerang.scene.Method;
+import boomerang.scene.Statement;
+import boomerang.scene.Val;
+import crypto.analysis.errors.ForbiddenMethodError;
+import crypto.rules.CrySLForbiddenMethod;
+import crypto.rules.CrySLRule;
+import crypto.utils.MatcherUtils;
+import crypto.utils.SootUtils;
+import soot.SootClass;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Whole-program check of the FORBIDDEN sections. The forbidden methods of all rules are indexed by
+ * their short name, and a single pass over the call sites of all methods in the scanner's call graph
+ * matches each call only against the forbidden methods with the same name. A call only violates a
+ * rule if its receiver is an object of the rule's class. Violations are reported against the seeds
+ * whose typestate results contain the call, or, if no seed covers the call (e.g. after a timeout),
+ * against a seed for the called object without results.
+ */
+public class ForbiddenMethodSweep {
+
+	private static final String CONSTRUCTOR_NAME = "<init>";
+
+	private final CryptoScanner scanner;
+	private final Map<String, List<ForbiddenEntry>> forbiddenMethodsByName = new HashMap<>();
+	private final Map<Statement, Set<CrySLRule>> forbiddenCalls = new HashMap<>();
+
+	public ForbiddenMethodSweep(CryptoScanner scanner, Collection<CrySLRule> rules) {
+		this.scanner = scanner;
+
+		for (CrySLRule rule : rules) {
+			for (CrySLForbiddenMethod forbiddenMethod : rule.getForbiddenMethods()) {
+				String name = forbiddenMethod.getMethod().getShortMethodName();
+				forbiddenMethodsByName.computeIfAbsent(name, k -> new ArrayList<>()).add(new ForbiddenEntry(rule, forbiddenMethod));
+			}
+		}
+	}
+
+	/**
+	 * Check all call sites in the methods of the call graph and report calls to forbidden methods. The
+	 * methods are visited from the entry points along the call graph edges. The seeds have to be
+	 * discovered before, such that the errors can be attached to them.
+	 */
+	public void sweep() {
+		if (forbiddenMethodsByName.isEmpty()) {
+			return;
+		}
+
+		CallGraph callGraph = scanner.callGraph();
+		Set<Method> visited = new HashSet<>();
+		Deque<Method> worklist = new ArrayDeque<>(callGraph.getEntryPoints());
+
+		while (!worklist.isEmpty()) {
+			Method method = worklist.poll();
+			if (!visited.add(method)) {
+				continue;
+			}
+
+			for (Statement statement : method.getStatements()) {
+				if (!statement.containsInvokeExpr()) {
+					continue;
+				}
+
+				if (!scanner.getDataFlowScope().isExcluded(method)) {
+					checkCall(statement);
+				}
+
+				for (CallGraph.Edge edge : callGraph.edgesOutOf(statement)) {
+					worklist.add(edge.tgt());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check whether a statement calls a forbidden method of the given rule. The statement has to be
+	 * checked by {@link #sweep()} before.
+	 *
+	 * @param statement the statement
+	 * @param rule the rule
+	 * @return true if the sweep found a call to a forbidden method of the rule
+	 */
+	public boolean isForbiddenCall(Statement statement, CrySLRule rule) {
+		return forbiddenCalls.getOrDefault(statement, Collections.emptySet()).contains(rule);
+	}
+
+	public int getForbiddenCalls() {
+		int count = 0;
+		for (Set<CrySLRule> rules : forbiddenCalls.values()) {
+			count += rules.size();
+		}
+		return count;
+	}
+
+	private void checkCall(Statement statement) {
+		DeclaredMethod declaredMethod = statement.getInvokeExpr().getMethod();
+		List<ForbiddenEntry> candidates = forbiddenMethodsByName.get(getShortName(declaredMethod));
+
+		if (candidates == null) {
+			return;
+		}
+
+		for (ForbiddenEntry candidate : candidates) {
+			// Report only the first forbidden method per rule
+			if (isForbiddenCall(statement, candidate.rule)) {
+				continue;
+			}
+
+			if (!isCalledOnRuleObject(statement, candidate.rule)) {
+				continue;
+			}
+
+			if (MatcherUtils.matchCryslMethodAndDeclaredMethod(candidate.forbiddenMethod.getMethod(), declaredMethod)) {
+				forbiddenCalls.computeIfAbsent(statement, k -> new HashSet<>()).add(candidate.rule);
+				reportError(statement, declaredMethod, candidate);
+			}
+		}
+	}
+
+	/**
+	 * The matcher accepts methods that are declared in a super type of the rule's class, so the
+	 * receiver of the call has to be checked separately. Otherwise, calls on unrelated objects that
+	 * share the super type would be reported. If the receiver's static type is a super type of the
+	 * rule's class, the call is accepted if a seed of the rule invokes the method, i.e. the receiver
+	 * refers to an object of the rule.
+	 */
+	private boolean isCalledOnRuleObject(Statement statement, CrySLRule rule) {
+		InvokeExpr invokeExpr = statement.getInvokeExpr();
+		String ruleClassName = rule.getClassName();
+
+		if (!invokeExpr.isInstanceInvokeExpr()) {
+			return invokeExpr.getMethod().getDeclaringClass().getName().equals(ruleClassName);
+		}
+
+		String receiverType = invokeExpr.getBase().getType().toString();
+		if (receiverType.equals(ruleClassName) || SootUtils.isSubtype(receiverType, ruleClassName)) {
+			return true;
+		}
+		return !getSeedsCallingAt(statement, rule).isEmpty();
+	}
+
+	private void reportError(Statement statement, DeclaredMethod declaredMethod, ForbiddenEntry entry) {
+		Collection<IAnalysisSeed> seeds = getSeedsCallingAt(statement, entry.rule);
+
+		if (seeds.isEmpty()) {
+			// No seed from the typestate analysis covers the call, so the error is attached to a seed
+			// for the called object without any results
+			Val fact = statement.getInvokeExpr().isInstanceInvokeExpr() ? statement.getInvokeExpr().getBase() : Val.zero();
+			seeds = Collections.singleton(new AnalysisSeedWithSpecification(scanner, statement, fact, null, entry.rule));
+		}
+
+		for (IAnalysisSeed seed : seeds) {
+			ForbiddenMethodError error = new ForbiddenMethodError(seed, statement, entry.rule, declaredMethod, entry.forbiddenMethod.getAlternatives());
+			scanner.getAnalysisReporter().reportError(seed, error);
+		}
+	}
+
+	/**
+	 * Returns the seeds of the rule that invoke a method at the statement, i.e. the seeds that
+	 * reported the error before the sweep.
+	 */
+	private Collection<IAnalysisSeed> getSeedsCallingAt(Statement statement, CrySLRule rule) {
+		Collection<IAnalysisSeed> result = new ArrayList<>();
+
+		for (AnalysisSeedWithSpecification seed : scanner.getSeedIndex().getSeedsWithResultsAt(statement)) {
+			if (!seed.getSpecification().equals(rule)) {
+				continue;
+			}
+
+			for (ControlFlowGraph.Edge edge : seed.getAnalysisResults().getInvokedMethodOnInstance().keySet()) {
+				if (edge.getStart().equals(statement)) {
+					result.add(seed);
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
+	private static String getShortName(DeclaredMethod declaredMethod) {
+		String name = declaredMethod.getName();
+
+		// CrySL methods store the class name for constructors
+		if (name.equals(CONSTRUCTOR_NAME)) {
+			return ((SootClass) declaredMethod.getDeclaringClass().getDelegate()).getShortName();
+		}
+		return name;
+	}
+
+	private static class ForbiddenEntry {
+
+		private final CrySLRule rule;
+		private final CrySLForbiddenMethod forbiddenMethod;
+
+		private ForbiddenEntry(CrySLRule rule, CrySLForbiddenMethod forbiddenMethod) {
+			this.rule = rule;
+			this.forbiddenMethod = forbiddenMethod;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package crypto.analysis;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Worklist for the propagation of predicates between seeds. When a seed receives a new predicate, it
+ * is scheduled instead of rerunning its constraint and predicate checks immediately. The worklist is
+ * processed in rounds: each round recomputes every scheduled seed once, and the predicates that are
+ * ensured in a round schedule the receiving seeds for the next round. The propagation has converged
+ * when a round does not schedule any seed.
+ */
+public class PredicateFixpoint {
+
+	private final Set<AnalysisSeedWithSpecification> worklist = new LinkedHashSet<>();
+	private final Map<IAnalysisSeed, Integer> discoveryOrder = new HashMap<>();
+	private final Set<IAnalysisSeed> executedSeeds = new HashSet<>();
+	private final Set<AnalysisSeedWithSpecification> avoidedRecomputations = new HashSet<>();
+	private IAnalysisSeed executingSeed;
+	private int rounds;
+	private long iterations;
+	private long arrivals;
+
+	/**
+	 * Remember the order in which the seeds were discovered. The avoided recomputations are counted
+	 * against this order.
+	 *
+	 * @param seeds the seeds in the order of their discovery
+	 */
+	public void setDiscoveryOrder(Collection<IAnalysisSeed> seeds) {
+		discoveryOrder.clear();
+		for (IAnalysisSeed seed : seeds) {
+			discoveryOrder.putIfAbsent(seed, discoveryOrder.size());
+		}
+	}
+
+	/**
+	 * Mark a seed as executed. Predicates that arrive until the next seed is executed are ensured by
+	 * this seed.
+	 *
+	 * @param seed the seed that is executed next
+	 */
+	public void beforeExecution(IAnalysisSeed seed) {
+		executingSeed = seed;
+		executedSeeds.add(seed);
+	}
+
+	/**
+	 * Schedule a seed that received a new predicate. Multiple arrivals for the same seed are batched
+	 * into a single recomputation.
+	 *
+	 * @param seed the seed
+	 */
+	public void schedule(AnalysisSeedWithSpecification seed) {
+		arrivals++;
+		worklist.add(seed);
+
+		// The receiving seed is executed after the ensuring seed, but it was discovered before it. In
+		// the discovery order, the arrival would have caused a recomputation of the executed seed.
+		if (executingSeed != null && !executedSeeds.contains(seed) && isDiscoveredBefore(seed, executingSeed)) {
+			avoidedRecomputations.add(seed);
+		}
+	}
+
+	/**
+	 * Remove a seed from the worklist because its checks are computed anyway, e.g. when the seed is
+	 * executed.
+	 *
+	 * @param seed the seed
+	 */
+	public void unschedule(AnalysisSeedWithSpecification seed) {
+		worklist.remove(seed);
+	}
+
+	/**
+	 * Recompute the scheduled seeds until no seed receives a new predicate.
+	 */
+	public void run() {
+		executingSeed = null;
+
+		while (!worklist.isEmpty()) {
+			rounds++;
+
+			List<AnalysisSeedWithSpecification> round = new ArrayList<>(worklist);
+			worklist.clear();
+
+			for (AnalysisSeedWithSpecification seed : round) {
+				iterations++;
+				seed.recomputePredicates();
+			}
+		}
+	}
+
+	private boolean isDiscoveredBefore(IAnalysisSeed seed, IAnalysisSeed other) {
+		Integer seedPosition = discoveryOrder.get(seed);
+		Integer otherPosition = discoveryOrder.get(other);
+
+		if (seedPosition == null || otherPosition == null) {
+			return false;
+		}
+		return seedPosition < otherPosition;
+	}
+
+	public int getRounds() {
+		return rounds;
+	}
+
+	public long getIterations() {
+		return iterations;
+	}
+
+	public long getArrivals() {
+		return arrivals;
+	}
+
+	/**
+	 * Returns the number of seeds that would have been recomputed if the seeds were executed in the
+	 * order of their discovery, but received their predicates before their execution in the sorted
+	 * order.
+	 *
+	 * @return the number of avoided recomputations
+	 */
+	public long getAvoidedRecomputations() {
+		return avoidedRecomputations.size();
+	}
+
+	@Override
+	public String toString() {
+		return "Predicate fixpoint: " + arrivals + " predicate arrivals, " + iterations + " recomputations in " + rounds + " rounds, " + avoidedRecomputations.size() + " recomputations avoided compared to the discovery order";
+	}
+}
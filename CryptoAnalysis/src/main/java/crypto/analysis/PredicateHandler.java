@@ -6,7 +6,6 @@ import boomerang.scene.InvokeExpr;
 import boomerang.scene.Statement;
 import boomerang.scene.Val;
 import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
 import crypto.analysis.errors.RequiredPredicateError;
 import crypto.rules.CrySLPredicate;
@@ -15,12 +14,16 @@ import crypto.rules.ISLConstraint;
 import typestate.TransitionFunction;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class PredicateHandler {
 
@@ -101,40 +104,44 @@ public class PredicateHandler {
 
 	}
 
-	private final Table<Statement, Val, Set<EnsuredCrySLPredicate>> existingPredicates = HashBasedTable.create();
-	private final Table<Statement, IAnalysisSeed, Set<EnsuredCrySLPredicate>> existingPredicatesObjectBased = HashBasedTable.create();
-	private final Table<Statement, IAnalysisSeed, Set<CrySLPredicate>> expectedPredicateObjectBased = HashBasedTable.create();
+	private final Table<Statement, Val, EnsuredPredicates> existingPredicates = HashBasedTable.create();
+	private final Table<Statement, IAnalysisSeed, EnsuredPredicates> existingPredicatesObjectBased = HashBasedTable.create();
+	private final Table<Statement, IAnalysisSeed, BitSet> expectedPredicateObjectBased = HashBasedTable.create();
 	private final CryptoScanner cryptoScanner;
 	private final Map<AnalysisSeedWithSpecification, List<RequiredPredicateError>> requiredPredicateErrors;
 
 	public PredicateHandler(CryptoScanner cryptoScanner) {
 		this.cryptoScanner = cryptoScanner;
-		this.requiredPredicateErrors = new HashMap<>();
+		this.requiredPredicateErrors = new LinkedHashMap<>();
 	}
 
 	public boolean addNewPred(IAnalysisSeed seedObj, Statement statement, Val variable, EnsuredCrySLPredicate ensPred) {
-		Set<EnsuredCrySLPredicate> set = getExistingPredicates(statement, variable);
-		boolean added = set.add(ensPred);
+		int predicateId = cryptoScanner.getPredicateIds().getId(ensPred.getPredicate());
+		boolean added = getEnsuredPredicates(existingPredicates, statement, variable).add(predicateId, ensPred);
 
 		if (added) {
 			onPredicateAdded(seedObj, statement, variable, ensPred);
 		}
 
-		Set<EnsuredCrySLPredicate> predsObjBased = existingPredicatesObjectBased.get(statement, seedObj);
-		if (predsObjBased == null)
-			predsObjBased = Sets.newHashSet();
-		predsObjBased.add(ensPred);
-		existingPredicatesObjectBased.put(statement, seedObj, predsObjBased);
+		getEnsuredPredicates(existingPredicatesObjectBased, statement, seedObj).add(predicateId, ensPred);
 		return added;
 	}
-	
-	public Set<EnsuredCrySLPredicate> getExistingPredicates(Statement stmt, Val seed) {
-		Set<EnsuredCrySLPredicate> set = existingPredicates.get(stmt, seed);
-		if (set == null) {
-			set = Sets.newHashSet();
-			existingPredicates.put(stmt, seed, set);
+
+	public Collection<EnsuredCrySLPredicate> getExistingPredicates(Statement stmt, Val seed) {
+		EnsuredPredicates predicates = existingPredicates.get(stmt, seed);
+		if (predicates == null) {
+			return Collections.emptySet();
 		}
-		return set;
+		return predicates.getPredicates();
+	}
+
+	private static <C> EnsuredPredicates getEnsuredPredicates(Table<Statement, C, EnsuredPredicates> table, Statement statement, C column) {
+		EnsuredPredicates predicates = table.get(statement, column);
+		if (predicates == null) {
+			predicates = new EnsuredPredicates();
+			table.put(statement, column, predicates);
+		}
+		return predicates;
 	}
 
 	private void onPredicateAdded(IAnalysisSeed seedObj, Statement statement, Val fact, EnsuredCrySLPredicate ensPred) {
@@ -159,7 +166,8 @@ public class PredicateHandler {
 						continue;
 					}
 
-					for (AnalysisSeedWithSpecification otherSeed : cryptoScanner.getAnalysisSeedsWithSpec()) {
+					// Only seeds whose results contain the statement can receive the predicate
+					for (AnalysisSeedWithSpecification otherSeed : cryptoScanner.getSeedIndex().getSeedsWithResultsAt(statement)) {
 						otherSeed.registerResultsHandler(new AddPredicateToOtherSeed(statement, base, ensPred, otherSeed, i));
 					}
 				}
@@ -173,9 +181,9 @@ public class PredicateHandler {
 						continue;
 					}
 
-					for (AnalysisSeedWithSpecification seed : cryptoScanner.getAnalysisSeedsWithSpec()) {
-						if (seed.getOrigin().equals(statement)) {
-							seed.addEnsuredPredicate(ensPred, statement, i);
+					for (IAnalysisSeed seed : cryptoScanner.getSeedIndex().getSeedsAtOrigin(statement)) {
+						if (seed instanceof AnalysisSeedWithSpecification) {
+							((AnalysisSeedWithSpecification) seed).addEnsuredPredicate(ensPred, statement, i);
 						}
 					}
 				}
@@ -185,10 +193,10 @@ public class PredicateHandler {
 
 	public void expectPredicate(IAnalysisSeed object, Statement stmt, CrySLPredicate predToBeEnsured) {
 		for (Statement successor : stmt.getMethod().getControlFlowGraph().getSuccsOf(stmt)) {
-			Set<CrySLPredicate> set = expectedPredicateObjectBased.get(successor, object);
+			BitSet set = expectedPredicateObjectBased.get(successor, object);
 			if (set == null)
-				set = Sets.newHashSet();
-			set.add(predToBeEnsured);
+				set = new BitSet();
+			set.set(cryptoScanner.getPredicateIds().getId(predToBeEnsured));
 			expectedPredicateObjectBased.put(stmt, object, set);
 		}
 	}
@@ -197,34 +205,57 @@ public class PredicateHandler {
 		collectMissingRequiredPredicates();
 		reportRequiredPredicateErrors();
 		checkForContradictions();
-		cryptoScanner.getAnalysisReporter().ensuredPredicates(existingPredicates);
+		cryptoScanner.getAnalysisReporter().ensuredPredicates(getExistingPredicatesTable());
+	}
+
+	private Table<Statement, Val, Set<EnsuredCrySLPredicate>> getExistingPredicatesTable() {
+		Table<Statement, Val, Set<EnsuredCrySLPredicate>> result = HashBasedTable.create();
+
+		for (Table.Cell<Statement, Val, EnsuredPredicates> cell : existingPredicates.cellSet()) {
+			result.put(cell.getRowKey(), cell.getColumnKey(), new HashSet<>(cell.getValue().getPredicates()));
+		}
+		return result;
 	}
 
 	private void collectMissingRequiredPredicates() {
-		for (AnalysisSeedWithSpecification seed : cryptoScanner.getAnalysisSeedsWithSpec()) {
-			requiredPredicateErrors.put(seed, new ArrayList<>());
-			Collection<ISLConstraint> missingPredicates = seed.computeMissingPredicates();
+		List<AnalysisSeedWithSpecification> seeds = new ArrayList<>(cryptoScanner.getAnalysisSeedsWithSpec());
 
-			for (ISLConstraint pred : missingPredicates) {
-				if (pred instanceof RequiredCrySLPredicate) {
-					RequiredCrySLPredicate reqPred = (RequiredCrySLPredicate) pred;
+		// The conditions of required predicates may run Boomerang queries, which are not thread-safe,
+		// so they are evaluated sequentially. Afterwards, each seed only reads its own state.
+		seeds.forEach(AnalysisSeedWithSpecification::evaluateRequiredPredicateConditions);
 
-					RequiredPredicateError reqPredError = new RequiredPredicateError(seed, reqPred);
-					addRequiredPredicateErrorOnSeed(reqPredError, seed);
-				} else if (pred instanceof AlternativeReqPredicate) {
-					AlternativeReqPredicate altReqPred = (AlternativeReqPredicate) pred;
+		List<List<RequiredPredicateError>> errorsPerSeed = IntStream.range(0, seeds.size()).parallel()
+				.mapToObj(i -> createRequiredPredicateErrors(seeds.get(i), seeds.get(i).computeMissingPredicates()))
+				.collect(Collectors.toList());
 
-					RequiredPredicateError reqPredError = new RequiredPredicateError(seed, altReqPred);
-					addRequiredPredicateErrorOnSeed(reqPredError, seed);
-				}
-			}
+		// The errors are collected in the order in which the seeds were executed, so they are reported
+		// in a deterministic order
+		for (int i = 0; i < seeds.size(); i++) {
+			AnalysisSeedWithSpecification seed = seeds.get(i);
+			List<RequiredPredicateError> errors = errorsPerSeed.get(i);
+
+			errors.forEach(seed::addError);
+			requiredPredicateErrors.put(seed, errors);
 		}
 	}
 
-	private void addRequiredPredicateErrorOnSeed(RequiredPredicateError reqPredError, AnalysisSeedWithSpecification seed) {
-		seed.addHiddenPredicatesToError(reqPredError);
-		seed.addError(reqPredError);
-		requiredPredicateErrors.get(seed).add(reqPredError);
+	private List<RequiredPredicateError> createRequiredPredicateErrors(AnalysisSeedWithSpecification seed, Collection<ISLConstraint> missingPredicates) {
+		List<RequiredPredicateError> errors = new ArrayList<>();
+
+		for (ISLConstraint pred : missingPredicates) {
+			RequiredPredicateError reqPredError;
+			if (pred instanceof RequiredCrySLPredicate) {
+				reqPredError = new RequiredPredicateError(seed, (RequiredCrySLPredicate) pred);
+			} else if (pred instanceof AlternativeReqPredicate) {
+				reqPredError = new RequiredPredicateError(seed, (AlternativeReqPredicate) pred);
+			} else {
+				continue;
+			}
+
+			seed.addHiddenPredicatesToError(reqPredError);
+			errors.add(reqPredError);
+		}
+		return errors;
 	}
 
 	private void reportRequiredPredicateErrors() {
@@ -250,10 +281,15 @@ public class PredicateHandler {
 				}
 			}
 		}
+
+		if (contradictionPairs.isEmpty()) {
+			return;
+		}
+
 		for (Statement generatingPredicateStmt : expectedPredicateObjectBased.rowKeySet()) {
-			for (Map.Entry<Val, Set<EnsuredCrySLPredicate>> exPredCell : existingPredicates.row(generatingPredicateStmt).entrySet()) {
+			for (Map.Entry<Val, EnsuredPredicates> exPredCell : existingPredicates.row(generatingPredicateStmt).entrySet()) {
 				Set<String> preds = new HashSet<>();
-				for (EnsuredCrySLPredicate exPred : exPredCell.getValue()) {
+				for (EnsuredCrySLPredicate exPred : exPredCell.getValue().getPredicates()) {
 					preds.add(exPred.getPredicate().getPredName());
 				}
 				for (Map.Entry<CrySLPredicate, CrySLPredicate> disPair : contradictionPairs) {
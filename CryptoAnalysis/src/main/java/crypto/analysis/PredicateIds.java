@@ -0,0 +1,64 @@
+package crypto.analysis;
+
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scan-wide table that interns predicates to small integer ids. The predicates of the rules are
+ * interned when the rules are loaded, such that the predicates in the ENSURES and REQUIRES sections
+ * are mapped to their ids with an identity lookup instead of recomputing their hash codes. The id of
+ * a predicate is determined by its name, parameters and condition, i.e. the components that identify
+ * the predicate in hash-based collections. Predicates that are created during the analysis (e.g. with
+ * 'this' replaced by a parameter) are looked up by these components only, so they do not add
+ * entries to the identity table.
+ */
+public class PredicateIds {
+
+	private final Map<CrySLPredicate, Integer> idsByInstance = new IdentityHashMap<>();
+	private final Map<List<Object>, Integer> idsByTemplate = new HashMap<>();
+
+	/**
+	 * Intern the ensured and required predicates of a rule.
+	 *
+	 * @param rule the rule
+	 */
+	public synchronized void intern(CrySLRule rule) {
+		for (CrySLPredicate predicate : rule.getPredicates()) {
+			idsByInstance.put(predicate, getTemplateId(predicate));
+		}
+
+		for (CrySLPredicate predicate : rule.getRequiredPredicates()) {
+			idsByInstance.put(predicate, getTemplateId(predicate));
+		}
+	}
+
+	/**
+	 * Returns the id of a predicate. Predicates with a name, parameters and condition that were not
+	 * seen before get a new id.
+	 *
+	 * @param predicate the predicate
+	 * @return the id
+	 */
+	public synchronized int getId(CrySLPredicate predicate) {
+		Integer id = idsByInstance.get(predicate);
+		if (id != null) {
+			return id;
+		}
+		return getTemplateId(predicate);
+	}
+
+	private int getTemplateId(CrySLPredicate predicate) {
+		List<Object> template = Arrays.asList(predicate.getPredName(), predicate.getParameters(), predicate.getConstraint());
+		return idsByTemplate.computeIfAbsent(template, k -> idsByTemplate.size());
+	}
+
+	public synchronized int size() {
+		return idsByTemplate.size();
+	}
+}
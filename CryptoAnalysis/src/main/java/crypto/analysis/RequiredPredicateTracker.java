@@ -0,0 +1,153 @@
+package crypto.analysis;
+
+import boomerang.scene.Statement;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.ISLConstraint;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Satisfaction state of the required predicates of a seed. The state of each required predicate is
+ * updated when an ensured predicate arrives at its location, so computing the missing predicates
+ * reads the state instead of matching all ensured predicates against all required predicates again.
+ * The tracker is bound to the constraint solver of the seed and is replaced with it.
+ */
+class RequiredPredicateTracker {
+
+	private final AnalysisSeedWithSpecification seed;
+	private final List<Requirement> requirements = new ArrayList<>();
+	private final Map<Statement, List<Requirement>> requirementsByLocation = new HashMap<>();
+
+	RequiredPredicateTracker(AnalysisSeedWithSpecification seed, Collection<ISLConstraint> requiredPredicates) {
+		this.seed = seed;
+
+		for (ISLConstraint constraint : requiredPredicates) {
+			Requirement requirement;
+			if (constraint instanceof RequiredCrySLPredicate) {
+				RequiredCrySLPredicate reqPred = (RequiredCrySLPredicate) constraint;
+				requirement = new Requirement(constraint, Collections.singletonList(reqPred.getPred()), reqPred.getParamIndex());
+			} else if (constraint instanceof AlternativeReqPredicate) {
+				AlternativeReqPredicate altPred = (AlternativeReqPredicate) constraint;
+				requirement = new Requirement(constraint, altPred.getAlternatives(), altPred.getParamIndex());
+			} else {
+				continue;
+			}
+
+			requirements.add(requirement);
+			requirementsByLocation.computeIfAbsent(constraint.getLocation(), k -> new ArrayList<>()).add(requirement);
+		}
+	}
+
+	/**
+	 * Update the required predicates at the statement with a newly ensured predicate.
+	 *
+	 * @param statement the statement where the predicate is ensured
+	 * @param ensPred the ensured predicate
+	 * @param paramIndex the parameter index where the predicate is ensured (-1 for predicates on the seed)
+	 */
+	void onPredicateEnsured(Statement statement, EnsuredCrySLPredicate ensPred, int paramIndex) {
+		for (Requirement requirement : requirementsByLocation.getOrDefault(statement, Collections.emptyList())) {
+			if (requirement.paramIndex == paramIndex) {
+				requirement.update(ensPred);
+			}
+		}
+	}
+
+	/**
+	 * Evaluate the conditions of all alternatives of the requirements that are not satisfied by an
+	 * ensured predicate. The results are cached by the seed, so computing the missing predicates
+	 * afterwards does not evaluate any condition.
+	 */
+	void evaluateConditions() {
+		for (Requirement requirement : requirements) {
+			if (requirement.isSatisfied()) {
+				continue;
+			}
+
+			for (CrySLPredicate alternative : requirement.alternatives) {
+				seed.isPredConditionSatisfied(alternative);
+			}
+		}
+	}
+
+	/**
+	 * Returns the required predicates that are neither satisfied by an ensured predicate nor by a
+	 * satisfied condition. The predicates are returned in the order of the requirements.
+	 *
+	 * @return the missing predicates
+	 */
+	Collection<ISLConstraint> getMissingPredicates() {
+		Collection<ISLConstraint> missingPredicates = new LinkedHashSet<>();
+
+		for (Requirement requirement : requirements) {
+			if (requirement.isSatisfied()) {
+				continue;
+			}
+
+			// Check conditional required predicates
+			if (requirement.alternatives.stream().anyMatch(seed::isPredConditionSatisfied)) {
+				continue;
+			}
+			missingPredicates.add(requirement.constraint);
+		}
+		return missingPredicates;
+	}
+
+	private class Requirement {
+
+		private final ISLConstraint constraint;
+		private final List<CrySLPredicate> alternatives;
+		private final List<CrySLPredicate> positives = new ArrayList<>();
+		private final List<CrySLPredicate> negatives = new ArrayList<>();
+		private final int paramIndex;
+
+		private boolean positiveEnsured;
+		private final BitSet ensuredNegatives = new BitSet();
+
+		private Requirement(ISLConstraint constraint, List<CrySLPredicate> alternatives, int paramIndex) {
+			this.constraint = constraint;
+			this.alternatives = alternatives;
+			this.paramIndex = paramIndex;
+
+			for (CrySLPredicate alternative : alternatives) {
+				if (alternative.isNegated()) {
+					negatives.add(alternative);
+				} else {
+					positives.add(alternative);
+				}
+			}
+		}
+
+		private void update(EnsuredCrySLPredicate ensPred) {
+			if (!positiveEnsured) {
+				for (CrySLPredicate positive : positives) {
+					if (seed.doReqPredAndEnsPredMatch(positive, ensPred)) {
+						positiveEnsured = true;
+						break;
+					}
+				}
+			}
+
+			for (int i = 0; i < negatives.size(); i++) {
+				if (!ensuredNegatives.get(i) && seed.doReqPredAndEnsPredMatch(negatives.get(i), ensPred)) {
+					ensuredNegatives.set(i);
+				}
+			}
+		}
+
+		/**
+		 * A requirement is satisfied if any positive alternative is ensured or if any negated
+		 * alternative, e.g. !randomized, is not ensured.
+		 */
+		private boolean isSatisfied() {
+			return positiveEnsured || ensuredNegatives.cardinality() < negatives.size();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package crypto.analysis;
+
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Dependencies between rules that are derived from their ENSURES and REQUIRES sections. A rule depends
+ * on another rule if it requires a predicate that the other rule ensures, e.g. a rule requiring
+ * 'generatedKey' depends on the rule ensuring it, which in turn depends on the rule ensuring
+ * 'randomized'. Seeds are executed in the topological order of their rules, such that the predicates
+ * required by a seed usually arrive before the seed checks its REQUIRES section. Rules in a cycle are
+ * ordered by their class name.
+ */
+public class RuleDependencyGraph {
+
+	private static final Comparator<CrySLRule> BY_CLASS_NAME = Comparator.comparing(CrySLRule::getClassName);
+
+	private final Map<CrySLRule, Set<CrySLRule>> dependents = new HashMap<>();
+	private final Map<CrySLRule, Integer> ranks = new HashMap<>();
+
+	public RuleDependencyGraph(Collection<CrySLRule> rules) {
+		Map<String, Set<CrySLRule>> rulesByEnsuredPredicate = new HashMap<>();
+		for (CrySLRule rule : rules) {
+			for (CrySLPredicate predicate : rule.getPredicates()) {
+				rulesByEnsuredPredicate.computeIfAbsent(predicate.getPredName(), k -> new HashSet<>()).add(rule);
+			}
+		}
+
+		Map<CrySLRule, Integer> dependencies = new HashMap<>();
+		for (CrySLRule rule : rules) {
+			dependents.computeIfAbsent(rule, k -> new HashSet<>());
+			dependencies.putIfAbsent(rule, 0);
+
+			Set<CrySLRule> providers = new HashSet<>();
+			for (CrySLPredicate predicate : rule.getRequiredPredicates()) {
+				providers.addAll(rulesByEnsuredPredicate.getOrDefault(predicate.getPredName(), new HashSet<>()));
+			}
+			providers.remove(rule);
+
+			for (CrySLRule provider : providers) {
+				dependents.computeIfAbsent(provider, k -> new HashSet<>()).add(rule);
+			}
+			dependencies.put(rule, providers.size());
+		}
+
+		computeRanks(dependencies);
+	}
+
+	private void computeRanks(Map<CrySLRule, Integer> dependencies) {
+		TreeSet<CrySLRule> ready = new TreeSet<>(BY_CLASS_NAME);
+		TreeSet<CrySLRule> remaining = new TreeSet<>(BY_CLASS_NAME);
+
+		for (Map.Entry<CrySLRule, Integer> entry : dependencies.entrySet()) {
+			if (entry.getValue() == 0) {
+				ready.add(entry.getKey());
+			} else {
+				remaining.add(entry.getKey());
+			}
+		}
+
+		while (!ready.isEmpty() || !remaining.isEmpty()) {
+			CrySLRule next;
+			if (ready.isEmpty()) {
+				// Break a cycle with the first remaining rule
+				next = remaining.pollFirst();
+			} else {
+				next = ready.pollFirst();
+			}
+			ranks.put(next, ranks.size());
+
+			for (CrySLRule dependent : dependents.get(next)) {
+				if (ranks.containsKey(dependent)) {
+					continue;
+				}
+
+				int count = dependencies.merge(dependent, -1, Integer::sum);
+				if (count <= 0 && remaining.remove(dependent)) {
+					ready.add(dependent);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the position of a rule in the topological order. Rules that are not part of the graph
+	 * come last.
+	 *
+	 * @param rule the rule
+	 * @return the rank of the rule
+	 */
+	public int getRank(CrySLRule rule) {
+		return ranks.getOrDefault(rule, ranks.size());
+	}
+
+	/**
+	 * Sort the seeds by the rank of their rules. Seeds without a specification do not require any
+	 * predicates, so they come first. The seeds are discovered in no particular order, so seeds with
+	 * the same rank are ordered by their method, line number and fact to make the order deterministic.
+	 *
+	 * @param seeds the seeds
+	 * @return the sorted seeds
+	 */
+	public List<IAnalysisSeed> sortSeeds(Collection<IAnalysisSeed> seeds) {
+		List<IAnalysisSeed> result = new ArrayList<>(seeds);
+
+		result.sort(Comparator.comparingInt(this::getSeedRank)
+				.thenComparing(seed -> seed.getMethod().toString())
+				.thenComparingInt(seed -> seed.getOrigin().getStartLineNumber())
+				.thenComparing(IAnalysisSeed::toString));
+		return result;
+	}
+
+	private int getSeedRank(IAnalysisSeed seed) {
+		if (seed instanceof AnalysisSeedWithSpecification) {
+			return getRank(((AnalysisSeedWithSpecification) seed).getSpecification());
+		}
+		return -1;
+	}
+
+	public int size() {
+		return ranks.size();
+	}
+}
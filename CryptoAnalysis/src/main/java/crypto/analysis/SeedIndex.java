@@ -0,0 +1,99 @@
+package crypto.analysis;
+
+import boomerang.scene.ControlFlowGraph;
+import boomerang.scene.Statement;
+import boomerang.scene.Val;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Scan-wide index of the discovered seeds. The predicate propagation looks up seeds by their origin,
+ * by their origin and fact, and by the statements that occur in their typestate results. Without the
+ * index, each lookup iterates over all seeds. The typestate results of the seeds are computed when
+ * the seeds are discovered and do not change afterwards, so the index is built once when it is
+ * created.
+ */
+public class SeedIndex {
+
+	private final Collection<AnalysisSeedWithSpecification> seedsWithSpec;
+	private final Map<Statement, List<IAnalysisSeed>> seedsByOrigin = new HashMap<>();
+	private final Map<Statement, Set<AnalysisSeedWithSpecification>> seedsByResultStatement;
+
+	public SeedIndex(Collection<IAnalysisSeed> seeds) {
+		Collection<AnalysisSeedWithSpecification> specSeeds = new ArrayList<>();
+
+		for (IAnalysisSeed seed : seeds) {
+			seedsByOrigin.computeIfAbsent(seed.getOrigin(), k -> new ArrayList<>()).add(seed);
+
+			if (seed instanceof AnalysisSeedWithSpecification) {
+				specSeeds.add((AnalysisSeedWithSpecification) seed);
+			}
+		}
+		this.seedsWithSpec = Collections.unmodifiableCollection(specSeeds);
+		this.seedsByResultStatement = indexResultStatements(specSeeds);
+	}
+
+	public Collection<AnalysisSeedWithSpecification> getSeedsWithSpec() {
+		return seedsWithSpec;
+	}
+
+	/**
+	 * Returns the seeds that originate at the given statement.
+	 *
+	 * @param origin the statement
+	 * @return the seeds with the statement as origin
+	 */
+	public Collection<IAnalysisSeed> getSeedsAtOrigin(Statement origin) {
+		return seedsByOrigin.getOrDefault(origin, Collections.emptyList());
+	}
+
+	/**
+	 * Returns the seeds that originate at the given statement and track the given fact.
+	 *
+	 * @param origin the statement
+	 * @param fact the fact
+	 * @return the seeds for the statement and fact
+	 */
+	public Collection<IAnalysisSeed> getSeeds(Statement origin, Val fact) {
+		Collection<IAnalysisSeed> result = new ArrayList<>();
+
+		for (IAnalysisSeed seed : getSeedsAtOrigin(origin)) {
+			if (seed.getFact().equals(fact)) {
+				result.add(seed);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the seeds with a specification whose typestate results contain the given statement.
+	 *
+	 * @param statement the statement
+	 * @return the seeds whose results contain the statement
+	 */
+	public Collection<AnalysisSeedWithSpecification> getSeedsWithResultsAt(Statement statement) {
+		return seedsByResultStatement.getOrDefault(statement, Collections.emptySet());
+	}
+
+	private static Map<Statement, Set<AnalysisSeedWithSpecification>> indexResultStatements(Collection<AnalysisSeedWithSpecification> seeds) {
+		Map<Statement, Set<AnalysisSeedWithSpecification>> result = new HashMap<>();
+
+		for (AnalysisSeedWithSpecification seed : seeds) {
+			if (seed.getAnalysisResults() == null) {
+				continue;
+			}
+
+			for (ControlFlowGraph.Edge edge : seed.getAnalysisResults().asStatementValWeightTable().rowKeySet()) {
+				result.computeIfAbsent(edge.getStart(), k -> new LinkedHashSet<>()).add(seed);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,180 @@
+package crypto.constraints;
+
+import boomerang.scene.InvokeExpr;
+import boomerang.scene.Method;
+import boomerang.scene.Statement;
+import boomerang.scene.Val;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scan-wide index of the assignments and array stores in a method. The index for a method is built
+ * lazily with a single pass over its statements and shared by all constraints and seeds, so the
+ * extraction of array values does not have to scan the method body or run Boomerang queries for
+ * arrays that are filled with constants in their allocating method.
+ */
+public class ArrayDefinitionIndex {
+
+	private final Map<Method, MethodDefinitions> definitions = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the values that are assigned to the given value in the given method. Array allocations
+	 * are excluded.
+	 *
+	 * @param method the method
+	 * @param val the value on the left side of the assignments
+	 * @return the right sides of the assignments
+	 */
+	public List<Val> getAssignedValues(Method method, Val val) {
+		return getDefinitions(method).assignedValues.get(val);
+	}
+
+	/**
+	 * Returns the constants stored in the array that is allocated to the given local, if all stores
+	 * are in the allocating method and store a constant or a local with a single constant definition.
+	 * If the array escapes the local (e.g. it is copied, stored in a field, returned or passed to more
+	 * than one call), the array may be modified elsewhere. The single call that may receive the array
+	 * reads it at its entry, so all stores have to precede this call. The stores are not
+	 * flow-sensitive, so the index also gives up if the local holds multiple allocations or an index
+	 * is stored multiple times. In these cases and if no store can be found, the values have to be
+	 * extracted with Boomerang.
+	 *
+	 * @param method the allocating method
+	 * @param arrayLocal the local holding the array
+	 * @return the stored constants per index or an empty optional
+	 */
+	public Optional<Map<Integer, Val>> getConstantArrayValues(Method method, Val arrayLocal) {
+		MethodDefinitions methodDefinitions = getDefinitions(method);
+
+		if (methodDefinitions.escapedLocals.contains(arrayLocal) || methodDefinitions.ambiguousArrays.contains(arrayLocal)) {
+			return Optional.empty();
+		}
+
+		Map<Integer, Val> stores = methodDefinitions.arrayStores.get(arrayLocal);
+		if (stores == null || stores.isEmpty()) {
+			return Optional.empty();
+		}
+
+		Map<Integer, Val> result = new HashMap<>();
+		for (Map.Entry<Integer, Val> store : stores.entrySet()) {
+			Val storedVal = store.getValue();
+
+			if (storedVal.isConstant()) {
+				result.put(store.getKey(), storedVal);
+				continue;
+			}
+
+			Collection<Val> definitionsOfVal = methodDefinitions.assignedValues.get(storedVal);
+			if (!storedVal.isLocal() || definitionsOfVal.size() != 1) {
+				return Optional.empty();
+			}
+
+			Val definition = definitionsOfVal.iterator().next();
+			if (!definition.isConstant()) {
+				return Optional.empty();
+			}
+			result.put(store.getKey(), definition);
+		}
+		return Optional.of(result);
+	}
+
+	private MethodDefinitions getDefinitions(Method method) {
+		return definitions.computeIfAbsent(method, MethodDefinitions::new);
+	}
+
+	public void clear() {
+		definitions.clear();
+	}
+
+	private static class MethodDefinitions {
+
+		private final ListMultimap<Val, Val> assignedValues = ArrayListMultimap.create();
+		private final Map<Val, Map<Integer, Val>> arrayStores = new HashMap<>();
+		private final Set<Val> allocatedArrays = new HashSet<>();
+		private final Set<Val> ambiguousArrays = new HashSet<>();
+		private final Set<Val> escapedLocals = new HashSet<>();
+		private final Set<Val> passedLocals = new HashSet<>();
+
+		private MethodDefinitions(Method method) {
+			for (Statement statement : method.getStatements()) {
+				collectEscapedLocals(statement);
+
+				if (!statement.isAssign()) {
+					continue;
+				}
+
+				Val leftOp = statement.getLeftOp();
+				Val rightOp = statement.getRightOp();
+
+				if (statement.isArrayStore()) {
+					Val arrayBase = leftOp.getArrayBase().getX();
+					Integer index = leftOp.getArrayBase().getY();
+
+					// A store after the call that receives the array is not seen by the call
+					Map<Integer, Val> stores = arrayStores.computeIfAbsent(arrayBase, k -> new HashMap<>());
+					if (stores.put(index, rightOp) != null || passedLocals.contains(arrayBase)) {
+						ambiguousArrays.add(arrayBase);
+					}
+					continue;
+				}
+
+				if (rightOp.isArrayAllocationVal()) {
+					if (!allocatedArrays.add(leftOp)) {
+						ambiguousArrays.add(leftOp);
+					}
+					continue;
+				}
+
+				assignedValues.put(leftOp, rightOp);
+			}
+		}
+
+		private void collectEscapedLocals(Statement statement) {
+			if (statement.containsInvokeExpr()) {
+				InvokeExpr invokeExpr = statement.getInvokeExpr();
+
+				for (Val arg : invokeExpr.getArgs()) {
+					addPassedLocal(arg);
+				}
+
+				if (invokeExpr.isInstanceInvokeExpr()) {
+					addPassedLocal(invokeExpr.getBase());
+				}
+			}
+
+			if (statement.isReturnStmt()) {
+				escapedLocals.add(statement.getReturnOp());
+			}
+
+			if (!statement.isAssign()) {
+				return;
+			}
+
+			// Copies, casts and stores into fields or other arrays create aliases of a local
+			Val rightOp = statement.getRightOp();
+			if (rightOp.isLocal()) {
+				escapedLocals.add(rightOp);
+			}
+
+			if (rightOp.isCast()) {
+				escapedLocals.add(rightOp.getCastOp());
+			}
+		}
+
+		private void addPassedLocal(Val val) {
+			// Another call may modify the array before or after the call that uses its values
+			if (!passedLocals.add(val)) {
+				escapedLocals.add(val);
+			}
+		}
+	}
+}
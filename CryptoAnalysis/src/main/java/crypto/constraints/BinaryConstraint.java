@@ -14,18 +14,15 @@ class BinaryConstraint extends EvaluableConstraint {
 		CrySLConstraint binaryConstraint = (CrySLConstraint) origin;
 		EvaluableConstraint left = EvaluableConstraint.getInstance(binaryConstraint.getLeft(), context);
 		EvaluableConstraint right = EvaluableConstraint.getInstance(binaryConstraint.getRight(), context);
-		left.evaluate();
 		LogOps ops = binaryConstraint.getOperator();
 
 		if (ops.equals(LogOps.implies)) {
-			// Left side of implication is not satisfied => Right side does not need to be satisfied
-			if (left.hasErrors()) {
-				return;
-			}
+			evaluateImplication(left, right);
+			return;
+		}
 
-			right.evaluate();
-			errors.addAll(right.getErrors());
-        } else if (ops.equals(LogOps.or)) {
+		left.evaluate();
+		if (ops.equals(LogOps.or)) {
 			// Constraint is violated if left and right is not satisfied
 			right.evaluate();
 			errors.addAll(left.getErrors());
@@ -52,4 +49,31 @@ class BinaryConstraint extends EvaluableConstraint {
 		}
 	}
 
+	private void evaluateImplication(EvaluableConstraint left, EvaluableConstraint right) {
+		ConstraintPlan plan = context.getConstraintPlan();
+
+		// Right side of implication is satisfied => Left side does not need to be evaluated
+		if (plan.getCost(right.origin) < plan.getCost(left.origin)) {
+			right.evaluate();
+			if (!right.hasErrors()) {
+				return;
+			}
+
+			left.evaluate();
+			if (!left.hasErrors()) {
+				errors.addAll(right.getErrors());
+			}
+			return;
+		}
+
+		// Left side of implication is not satisfied => Right side does not need to be satisfied
+		left.evaluate();
+		if (left.hasErrors()) {
+			return;
+		}
+
+		right.evaluate();
+		errors.addAll(right.getErrors());
+	}
+
 }
@@ -2,6 +2,7 @@ package crypto.constraints;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 import crypto.analysis.errors.AbstractError;
 import crypto.analysis.errors.ConstraintError;
@@ -35,6 +36,9 @@ public class ComparisonConstraint extends EvaluableConstraint {
 			}
 		}
 
+		// Each left value is compared against the bounds of the right values instead of every single value
+		Interval rightInterval = new Interval(right.keySet());
+
 		for (Map.Entry<Integer, CallSiteWithExtractedValue> leftie : left.entrySet()) {
 			if (leftie.getKey() == Integer.MIN_VALUE) {
 				ConstraintError error = new ConstraintError(context.getObject(), leftie.getValue(), context.getSpecification(), compConstraint);
@@ -42,41 +46,74 @@ public class ComparisonConstraint extends EvaluableConstraint {
 
 				return;
 			}
-			for (Map.Entry<Integer, CallSiteWithExtractedValue> rightie : right.entrySet()) {
 
-				boolean cons;
-				switch (compConstraint.getOperator()) {
-					case eq:
-						cons = leftie.getKey().equals(rightie.getKey());
-						break;
-					case g:
-						cons = leftie.getKey() > rightie.getKey();
-						break;
-					case ge:
-						cons = leftie.getKey() >= rightie.getKey();
-						break;
-					case l:
-						cons = leftie.getKey() < rightie.getKey();
-						break;
-					case le:
-						cons = leftie.getKey() <= rightie.getKey();
-						break;
-					case neq:
-						cons = leftie.getKey() != rightie.getKey();
-						break;
-					default:
-						cons = false;
-				}
-				if (!cons) {
-					ConstraintError error = new ConstraintError(context.getObject(), leftie.getValue(), context.getSpecification(), origin);
-					errors.add(error);
+			if (rightInterval.isEmpty()) {
+				continue;
+			}
 
-					return;
-				}
+			if (!holdsForAll(compConstraint.getOperator(), leftie.getKey(), rightInterval)) {
+				ConstraintError error = new ConstraintError(context.getObject(), leftie.getValue(), context.getSpecification(), origin);
+				errors.add(error);
+
+				return;
 			}
 		}
 	}
 
+	/**
+	 * Checks whether 'left op right' holds for all values right in the (non-empty) interval.
+	 *
+	 * @param operator the comparison operator
+	 * @param left the left value
+	 * @param right the interval of the right values
+	 * @return true if the comparison holds for each right value
+	 */
+	private static boolean holdsForAll(CrySLComparisonConstraint.CompOp operator, int left, Interval right) {
+		switch (operator) {
+			case eq:
+				return right.min == left && right.max == left;
+			case g:
+				return left > right.max;
+			case ge:
+				return left >= right.max;
+			case l:
+				return left < right.min;
+			case le:
+				return left <= right.min;
+			case neq:
+				return !right.values.contains(left);
+			default:
+				return false;
+		}
+	}
+
+	/**
+	 * Bounds of a set of integer values. The values are kept for the comparison with 'neq'.
+	 */
+	private static class Interval {
+
+		private final Set<Integer> values;
+		private final int min;
+		private final int max;
+
+		private Interval(Set<Integer> values) {
+			this.values = values;
+
+			int minValue = Integer.MAX_VALUE;
+			int maxValue = Integer.MIN_VALUE;
+			for (int value : values) {
+				minValue = Math.min(minValue, value);
+				maxValue = Math.max(maxValue, value);
+			}
+			this.min = minValue;
+			this.max = maxValue;
+		}
+
+		private boolean isEmpty() {
+			return values.isEmpty();
+		}
+	}
+
 	private Map<Integer, CallSiteWithExtractedValue> evaluate(CrySLArithmeticConstraint arith) {
 		Map<Integer, CallSiteWithExtractedValue> left = extractValueAsInt(arith.getLeft(), arith);
 		Map<Integer, CallSiteWithExtractedValue> right = extractValueAsInt(arith.getRight(), arith);
@@ -0,0 +1,84 @@
+package crypto.constraints;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scan-wide memo of constraint outcomes. Many seeds use the same literal parameters (e.g. "SHA-256"
+ * or 2048), so constraints that depend only on the extracted values of their variables have the same
+ * outcome for all these seeds. The memo stores the constraints that are satisfied by a tuple of values,
+ * such that the constraint phase scales with the number of distinct configurations.
+ * <p>
+ * Violated constraints are not reused because their errors refer to the statements of the seed. They
+ * are evaluated for each seed to report the errors at the correct locations.
+ */
+public class ConstraintOutcomeCache {
+
+	private final Map<Key, Boolean> satisfiedConstraints = new ConcurrentHashMap<>();
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Check whether the constraint is known to be satisfied by the given values.
+	 *
+	 * @param node the plan node of the constraint
+	 * @param values the extracted values of the constraint's involved variables
+	 * @return true if a previous evaluation with the same values did not report any errors
+	 */
+	public boolean isSatisfied(ConstraintPlan.ConstraintNode node, List<List<String>> values) {
+		if (satisfiedConstraints.containsKey(new Key(node, values))) {
+			hits.incrementAndGet();
+			return true;
+		}
+		misses.incrementAndGet();
+		return false;
+	}
+
+	public void markSatisfied(ConstraintPlan.ConstraintNode node, List<List<String>> values) {
+		satisfiedConstraints.put(new Key(node, values), Boolean.TRUE);
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public void clear() {
+		satisfiedConstraints.clear();
+	}
+
+	private static class Key {
+
+		// The nodes are unique per rule and constraint, so they are compared by identity
+		private final ConstraintPlan.ConstraintNode node;
+		private final List<List<String>> values;
+
+		private Key(ConstraintPlan.ConstraintNode node, List<List<String>> values) {
+			this.node = node;
+			this.values = values;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return node == other.node && values.equals(other.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(System.identityHashCode(node), values);
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package crypto.constraints;
+
+import crypto.rules.CrySLArithmeticConstraint;
+import crypto.rules.CrySLComparisonConstraint;
+import crypto.rules.CrySLConstraint;
+import crypto.rules.CrySLExceptionConstraint;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import crypto.rules.CrySLValueConstraint;
+import crypto.rules.ICrySLPredicateParameter;
+import crypto.rules.ISLConstraint;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable evaluation plan of the constraints of a {@link CrySLRule}. The plan is compiled once per
+ * rule and contains everything that does not depend on a seed: the variables that each constraint
+ * involves, whether a constraint is evaluated directly or describes required predicates, the names of
+ * the predicate parameters that are bound to call sites, and the factory for the evaluable constraint.
+ * A {@link ConstraintSolver} only binds the nodes of the plan to the extracted values of its seed.
+ */
+public class ConstraintPlan {
+
+	public enum Kind {
+		/** Constraint that is evaluated on the extracted values */
+		RELATIONAL,
+		/** Required predicate, e.g. 'generatedKey[key, alg]' */
+		REQUIRED_PREDICATE,
+		/** Required predicates with alternatives, e.g. 'generatedKey[key, alg] || randomized[key]' */
+		ALTERNATIVE_PREDICATES
+	}
+
+	public static class ConstraintNode {
+
+		private final ISLConstraint constraint;
+		private final Kind kind;
+		private final Set<String> involvedVarNames;
+		private final EvaluableConstraint.Factory factory;
+		private final List<CrySLPredicate> predicates;
+		private final List<String> boundParameterNames;
+		private final boolean hasThisParameter;
+		private final boolean valueOnly;
+
+		private ConstraintNode(ISLConstraint constraint, Kind kind, List<CrySLPredicate> predicates) {
+			this.constraint = constraint;
+			this.kind = kind;
+			this.involvedVarNames = Collections.unmodifiableSortedSet(new TreeSet<>(constraint.getInvolvedVarNames()));
+			this.valueOnly = kind == Kind.RELATIONAL && isValueOnly(constraint);
+			this.predicates = Collections.unmodifiableList(predicates);
+
+			if (kind == Kind.ALTERNATIVE_PREDICATES) {
+				// The alternatives are never evaluated on their own
+				this.factory = null;
+			} else {
+				this.factory = EvaluableConstraint.getFactory(constraint);
+			}
+
+			List<String> parameterNames = new ArrayList<>();
+			boolean thisParameter = false;
+
+			if (!predicates.isEmpty()) {
+				for (ICrySLPredicateParameter param : predicates.get(0).getParameters()) {
+					// TODO: FIX Cipher rule
+					if (!param.getName().equals("transformation")) {
+						parameterNames.add(param.getName());
+					}
+
+					if (param.getName().equals("this")) {
+						thisParameter = true;
+					}
+				}
+			}
+			this.boundParameterNames = Collections.unmodifiableList(parameterNames);
+			this.hasThisParameter = thisParameter;
+		}
+
+		public ISLConstraint getConstraint() {
+			return constraint;
+		}
+
+		public Kind getKind() {
+			return kind;
+		}
+
+		public Set<String> getInvolvedVarNames() {
+			return involvedVarNames;
+		}
+
+		/**
+		 * Returns the required predicate and its alternatives in the order they appear in the rule.
+		 * The list is empty for relational constraints.
+		 *
+		 * @return the predicates
+		 */
+		public List<CrySLPredicate> getPredicates() {
+			return predicates;
+		}
+
+		/**
+		 * Returns the parameter names of the (first) predicate that are bound to the call sites of the
+		 * seed, in the order of the parameters.
+		 *
+		 * @return the parameter names
+		 */
+		public List<String> getBoundParameterNames() {
+			return boundParameterNames;
+		}
+
+		public boolean hasThisParameter() {
+			return hasThisParameter;
+		}
+
+		/**
+		 * Returns whether the outcome of the constraint depends only on the extracted values of its
+		 * involved variables (see {@link ConstraintOutcomeCache}).
+		 *
+		 * @return true if the constraint consists only of value and comparison constraints
+		 */
+		public boolean isValueOnly() {
+			return valueOnly;
+		}
+
+		/**
+		 * Create the evaluable constraint of this node for a seed.
+		 *
+		 * @param constraint the constraint to evaluate; this is the node's constraint for relational
+		 *                   constraints and the bound predicate for required predicates
+		 * @param solver the solver of the seed
+		 * @return the evaluable constraint
+		 */
+		public EvaluableConstraint bind(ISLConstraint constraint, ConstraintSolver solver) {
+			if (factory == null) {
+				throw new IllegalStateException("Alternative predicates cannot be evaluated");
+			}
+			return factory.create(constraint, solver);
+		}
+	}
+
+	/** Cost of comparing extracted literals */
+	public static final int LITERAL_COST = 1;
+	/** Cost of looking up propagated types, collected calls or exception handlers */
+	public static final int LOOKUP_COST = 2;
+	/** Cost of inspecting allocation sites and arrays */
+	public static final int EXTRACTION_COST = 4;
+
+	private final List<ConstraintNode> nodes;
+	private final Map<ISLConstraint, Integer> costs;
+
+	private ConstraintPlan(List<ConstraintNode> nodes, Map<ISLConstraint, Integer> costs) {
+		this.nodes = Collections.unmodifiableList(nodes);
+		this.costs = costs;
+	}
+
+	public static ConstraintPlan compile(CrySLRule rule) {
+		List<ConstraintNode> nodes = new ArrayList<>();
+
+		for (ISLConstraint cons : rule.getConstraints()) {
+			if (cons instanceof CrySLPredicate) {
+				CrySLPredicate predicate = (CrySLPredicate) cons;
+
+				if (ConstraintSolver.predefinedPreds.contains(predicate.getPredName())) {
+					nodes.add(new ConstraintNode(cons, Kind.RELATIONAL, Collections.emptyList()));
+				} else {
+					nodes.add(new ConstraintNode(cons, Kind.REQUIRED_PREDICATE, Collections.singletonList(predicate)));
+				}
+			} else if (cons instanceof CrySLConstraint) {
+				ISLConstraint left = ((CrySLConstraint) cons).getLeft();
+
+				if (left instanceof CrySLPredicate && !ConstraintSolver.predefinedPreds.contains(((CrySLPredicate) left).getPredName())) {
+					nodes.add(new ConstraintNode(cons, Kind.ALTERNATIVE_PREDICATES, collectAlternatives((CrySLConstraint) cons)));
+				} else {
+					nodes.add(new ConstraintNode(cons, Kind.RELATIONAL, Collections.emptyList()));
+				}
+			} else {
+				nodes.add(new ConstraintNode(cons, Kind.RELATIONAL, Collections.emptyList()));
+			}
+		}
+
+		// Constraints are compared by their name, so the costs are stored per instance
+		Map<ISLConstraint, Integer> costs = new IdentityHashMap<>();
+		for (ISLConstraint cons : rule.getConstraints()) {
+			estimateCost(cons, costs);
+		}
+		return new ConstraintPlan(nodes, costs);
+	}
+
+	/**
+	 * Returns the estimated cost to evaluate a constraint or one of its sub-constraints. Composite
+	 * constraints use the costs to evaluate their cheaper operand first, where the logic permits.
+	 *
+	 * @param constraint the constraint
+	 * @return the estimated cost
+	 */
+	public int getCost(ISLConstraint constraint) {
+		Integer cost = costs.get(constraint);
+
+		if (cost == null) {
+			return estimateCost(constraint, new IdentityHashMap<>());
+		}
+		return cost;
+	}
+
+	private static int estimateCost(ISLConstraint constraint, Map<ISLConstraint, Integer> costs) {
+		int cost;
+		if (constraint instanceof CrySLConstraint) {
+			CrySLConstraint binary = (CrySLConstraint) constraint;
+			cost = estimateCost(binary.getLeft(), costs) + estimateCost(binary.getRight(), costs);
+		} else if (constraint instanceof CrySLValueConstraint) {
+			cost = LITERAL_COST;
+		} else if (constraint instanceof CrySLComparisonConstraint) {
+			cost = isValueOnly(constraint) ? LITERAL_COST : EXTRACTION_COST;
+		} else if (constraint instanceof CrySLPredicate) {
+			switch (((CrySLPredicate) constraint).getPredName()) {
+				case "callTo":
+				case "noCallTo":
+				case "neverTypeOf":
+				case "instanceOf":
+					cost = LOOKUP_COST;
+					break;
+				default:
+					// 'notHardCoded' and 'length' inspect the allocation sites
+					cost = EXTRACTION_COST;
+			}
+		} else if (constraint instanceof CrySLExceptionConstraint) {
+			cost = LOOKUP_COST;
+		} else {
+			cost = EXTRACTION_COST;
+		}
+
+		costs.put(constraint, cost);
+		return cost;
+	}
+
+	private static boolean isValueOnly(ISLConstraint constraint) {
+		if (constraint instanceof CrySLValueConstraint) {
+			return true;
+		} else if (constraint instanceof CrySLComparisonConstraint) {
+			CrySLComparisonConstraint comparison = (CrySLComparisonConstraint) constraint;
+			return isValueOnly(comparison.getLeft()) && isValueOnly(comparison.getRight());
+		} else if (constraint instanceof CrySLConstraint) {
+			CrySLConstraint binary = (CrySLConstraint) constraint;
+			return isValueOnly(binary.getLeft()) && isValueOnly(binary.getRight());
+		}
+		return false;
+	}
+
+	private static boolean isValueOnly(CrySLArithmeticConstraint arithmetic) {
+		// Predicates in arithmetic constraints (e.g. 'length[...]') depend on the seed
+		return !(arithmetic.getLeft() instanceof CrySLPredicate) && !(arithmetic.getRight() instanceof CrySLPredicate);
+	}
+
+	private static List<CrySLPredicate> collectAlternatives(CrySLConstraint cons) {
+		List<CrySLPredicate> alternatives = new ArrayList<>();
+
+		CrySLConstraint current = cons;
+		while (true) {
+			alternatives.add((CrySLPredicate) current.getLeft());
+
+			if (current.getRight() instanceof CrySLPredicate) {
+				alternatives.add((CrySLPredicate) current.getRight());
+				return alternatives;
+			}
+			current = (CrySLConstraint) current.getRight();
+		}
+	}
+
+	public List<ConstraintNode> getNodes() {
+		return nodes;
+	}
+}
@@ -5,38 +5,50 @@ import boomerang.scene.Statement;
 import boomerang.scene.Type;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Sets;
 import crypto.analysis.AlternativeReqPredicate;
 import crypto.analysis.AnalysisReporter;
 import crypto.analysis.AnalysisSeedWithSpecification;
 import crypto.analysis.RequiredCrySLPredicate;
 import crypto.analysis.errors.AbstractError;
+import crypto.extractparameter.CallSiteWithExtractedValue;
 import crypto.extractparameter.CallSiteWithParamIndex;
+import crypto.extractparameter.ExtractParameterAnalysis;
 import crypto.extractparameter.ExtractedValue;
-import crypto.rules.CrySLConstraint;
 import crypto.rules.CrySLPredicate;
 import crypto.rules.CrySLRule;
-import crypto.rules.ICrySLPredicateParameter;
 import crypto.rules.ISLConstraint;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
 public class ConstraintSolver {
 
 	public final static Collection<String> predefinedPreds = Arrays.asList("callTo", "noCallTo", "neverTypeOf", "length",
 			"notHardCoded", "instanceOf");
-	private final Collection<ISLConstraint> relConstraints = Sets.newHashSet();
+	private final Map<ISLConstraint, ConstraintPlan.ConstraintNode> relConstraints = new HashMap<>();
 	private final Collection<ISLConstraint> requiredPredicates = Lists.newArrayList();
 	private final Collection<Statement> collectedCalls;
 	private final AnalysisReporter analysisReporter;
 	private final AnalysisSeedWithSpecification object;
+	private final ConstraintPlan plan;
+
+	// Values of the variables as strings, computed once per variable for the current parameter analysis
+	private final Map<String, Map<String, CallSiteWithExtractedValue>> extractedValues = new HashMap<>();
+	private ExtractParameterAnalysis extractedValuesAnalysis;
+	private int extractedValuesCount;
 
 	public ConstraintSolver(AnalysisSeedWithSpecification object, Collection<ControlFlowGraph.Edge> callsOnObject, AnalysisReporter analysisReporter) {
 		this.object = object;
 		this.analysisReporter = analysisReporter;
+		this.plan = object.getScanner().getConstraintPlan(object.getSpecification());
 
 		this.collectedCalls = new HashSet<>();
 		for (ControlFlowGraph.Edge edge : callsOnObject) {
@@ -66,10 +78,41 @@ public class ConstraintSolver {
 		return object;
 	}
 
+	ConstraintPlan getConstraintPlan() {
+		return plan;
+	}
+
 	public Multimap<CallSiteWithParamIndex, ExtractedValue> getParsAndVals() {
 		return this.object.getParameterAnalysis().getCollectedValues();
 	}
 
+	/**
+	 * Returns the extracted values of a variable as strings. The values are computed with the given
+	 * extractor once per variable and reused by all constraints of the seed until the parameter
+	 * analysis changes.
+	 *
+	 * @param varName the name of the variable
+	 * @param extractor the function that extracts the values from {@link #getParsAndVals()}
+	 * @return the (unmodifiable) values of the variable
+	 */
+	Map<String, CallSiteWithExtractedValue> getExtractedValues(String varName, Function<String, Map<String, CallSiteWithExtractedValue>> extractor) {
+		ExtractParameterAnalysis parameterAnalysis = this.object.getParameterAnalysis();
+		int valuesCount = parameterAnalysis.getCollectedValues().size();
+
+		if (parameterAnalysis != extractedValuesAnalysis || valuesCount != extractedValuesCount) {
+			extractedValues.clear();
+			extractedValuesAnalysis = parameterAnalysis;
+			extractedValuesCount = valuesCount;
+		}
+
+		Map<String, CallSiteWithExtractedValue> values = extractedValues.get(varName);
+		if (values == null) {
+			values = Collections.unmodifiableMap(extractor.apply(varName));
+			extractedValues.put(varName, values);
+		}
+		return values;
+	}
+
 	/**
 	 * @return the allConstraints
 	 */
@@ -81,7 +124,7 @@ public class ConstraintSolver {
 	 * @return the relConstraints
 	 */
 	public Collection<ISLConstraint> getRelConstraints() {
-		return relConstraints;
+		return relConstraints.keySet();
 	}
 
 	public Collection<ISLConstraint> getRequiredPredicates() {
@@ -89,10 +132,27 @@ public class ConstraintSolver {
 	}
 
 	public int evaluateRelConstraints() {
+		ConstraintOutcomeCache outcomes = object.getScanner().getConstraintOutcomeCache();
+
 		int fail = 0;
-		for (ISLConstraint con : getRelConstraints()) {
-			EvaluableConstraint currentConstraint = EvaluableConstraint.getInstance(con, this);
+		for (Map.Entry<ISLConstraint, ConstraintPlan.ConstraintNode> entry : relConstraints.entrySet()) {
+			ConstraintPlan.ConstraintNode node = entry.getValue();
+
+			// Skip constraints that are satisfied by the same values for another seed without binding them
+			List<List<String>> valuesKey = null;
+			if (node.isValueOnly()) {
+				valuesKey = EvaluableConstraint.getExtractedValuesKey(this, node.getInvolvedVarNames());
+
+				if (outcomes.isSatisfied(node, valuesKey)) {
+					continue;
+				}
+			}
+
+			EvaluableConstraint currentConstraint = node.bind(entry.getKey(), this);
 			currentConstraint.evaluate();
+			if (valuesKey != null && !currentConstraint.hasErrors()) {
+				outcomes.markSatisfied(node, valuesKey);
+			}
 
 			for (AbstractError error : currentConstraint.getErrors()) {
 				analysisReporter.reportError(object, error);
@@ -103,116 +163,86 @@ public class ConstraintSolver {
 	}
 
 	/**
-	 * (Probably) partitions Cosntraints into required Predicates and "normal"
-	 * constraints (relConstraints).
+	 * Partitions the constraints from the rule's plan into required predicates and "normal" constraints
+	 * (relConstraints). Constraints that involve variables without a call site are not considered.
 	 */
 	private void partitionConstraints() {
-		for (ISLConstraint cons : getAllConstraints()) {
-			Collection<String> involvedVarNames = new HashSet<>(cons.getInvolvedVarNames());
-
-			for (CallSiteWithParamIndex cwpi : this.getParameterAnalysisQuerySites()) {
-				involvedVarNames.remove(cwpi.getVarName());
-			}
+		Set<String> querySiteVarNames = new HashSet<>();
+		for (CallSiteWithParamIndex cwpi : this.getParameterAnalysisQuerySites()) {
+			querySiteVarNames.add(cwpi.getVarName());
+		}
 
-			if (!involvedVarNames.isEmpty()) {
+		for (ConstraintPlan.ConstraintNode node : plan.getNodes()) {
+			if (!querySiteVarNames.containsAll(node.getInvolvedVarNames())) {
 				continue;
 			}
 
-			if (cons instanceof CrySLPredicate) {
-				CrySLPredicate predicate = (CrySLPredicate) cons;
-				if (predefinedPreds.contains(predicate.getPredName())) {
-					relConstraints.add(predicate);
-					continue;
-				}
-
-				Collection<RequiredCrySLPredicate> preds = retrieveValuesForPred(predicate);
-
-				for (RequiredCrySLPredicate pred : preds) {
-					CrySLPredicate innerPred = pred.getPred();
-
-					if (innerPred != null) {
-						relConstraints.add(innerPred);
+			switch (node.getKind()) {
+				case RELATIONAL:
+					relConstraints.putIfAbsent(node.getConstraint(), node);
+					break;
+				case REQUIRED_PREDICATE:
+					for (RequiredCrySLPredicate pred : retrieveValuesForPred(node)) {
+						relConstraints.putIfAbsent(pred.getPred(), node);
 						requiredPredicates.add(pred);
 					}
-				}
-			} else if (cons instanceof CrySLConstraint) {
-				ISLConstraint left = ((CrySLConstraint) cons).getLeft();
-
-				if (left instanceof CrySLPredicate && !predefinedPreds.contains(((CrySLPredicate) left).getPredName())) {
-					requiredPredicates.addAll(collectAlternativePredicates((CrySLConstraint) cons, new ArrayList<>()));
-				} else {
-					relConstraints.add(cons);
-				}
-			} else {
-				relConstraints.add(cons);
+					break;
+				case ALTERNATIVE_PREDICATES:
+					requiredPredicates.addAll(collectAlternativePredicates(node));
+					break;
 			}
 		}
 	}
 
-	private Collection<AlternativeReqPredicate> collectAlternativePredicates(CrySLConstraint cons, Collection<AlternativeReqPredicate> alts) {
-		CrySLPredicate left = (CrySLPredicate) cons.getLeft();
-		
-		if (alts.isEmpty()) {
-			for (CallSiteWithParamIndex cwpi : this.getParameterAnalysisQuerySites()) {
-				for (ICrySLPredicateParameter p : left.getParameters()) {
-					if (p.getName().equals("transformation")) {
-						continue;
-					}
+	private Collection<AlternativeReqPredicate> collectAlternativePredicates(ConstraintPlan.ConstraintNode node) {
+		List<CrySLPredicate> predicates = node.getPredicates();
+		CrySLPredicate left = predicates.get(0);
+		Collection<AlternativeReqPredicate> alts = new ArrayList<>();
 
-					if (cwpi.getVarName().equals(p.getName())) {
-						alts.add(new AlternativeReqPredicate(left, cwpi.stmt(), cwpi.getIndex()));
-					}
+		for (CallSiteWithParamIndex cwpi : this.getParameterAnalysisQuerySites()) {
+			for (String paramName : node.getBoundParameterNames()) {
+				if (cwpi.getVarName().equals(paramName)) {
+					alts.add(new AlternativeReqPredicate(left, cwpi.stmt(), cwpi.getIndex()));
 				}
 			}
+		}
 
-			// Extract predicates with 'this' as parameter
-			if (left.getParameters().stream().anyMatch(param -> param.getName().equals("this"))) {
-				AlternativeReqPredicate altPred = new AlternativeReqPredicate(left, object.getOrigin(), -1);
+		// Extract predicates with 'this' as parameter
+		if (node.hasThisParameter()) {
+			AlternativeReqPredicate altPred = new AlternativeReqPredicate(left, object.getOrigin(), -1);
 
-				if (!alts.contains(altPred)) {
-					alts.add(altPred);
-				}
-			}
-		} else {
-			for (AlternativeReqPredicate alt : alts) {
-				alt.addAlternative(left);
+			if (!alts.contains(altPred)) {
+				alts.add(altPred);
 			}
 		}
 
-		if (cons.getRight() instanceof CrySLPredicate) {
+		for (CrySLPredicate alternative : predicates.subList(1, predicates.size())) {
 			for (AlternativeReqPredicate alt : alts) {
-				alt.addAlternative((CrySLPredicate) cons.getRight());
+				alt.addAlternative(alternative);
 			}
-		} else {
-			return collectAlternativePredicates((CrySLConstraint) cons.getRight(), alts);
 		}
-
 		return alts;
 	}
 
-	private Collection<RequiredCrySLPredicate> retrieveValuesForPred(CrySLPredicate pred) {
+	private Collection<RequiredCrySLPredicate> retrieveValuesForPred(ConstraintPlan.ConstraintNode node) {
+		CrySLPredicate pred = node.getPredicates().get(0);
 		Collection<RequiredCrySLPredicate> result = Lists.newArrayList();
 		
 		for (CallSiteWithParamIndex cwpi : this.getParameterAnalysisQuerySites()) {
-			for (ICrySLPredicateParameter p : pred.getParameters()) {
-				// TODO: FIX Cipher rule
-				if (p.getName().equals("transformation")) {
-					continue;
-				}
-				
-				// Predicates with _ can have any type
-				if (cwpi.getVarName().equals("_")) {
-					continue;
-				}
-				
-				if (cwpi.getVarName().equals(p.getName())) {
+			// Predicates with _ can have any type
+			if (cwpi.getVarName().equals("_")) {
+				continue;
+			}
+
+			for (String paramName : node.getBoundParameterNames()) {
+				if (cwpi.getVarName().equals(paramName)) {
 					result.add(new RequiredCrySLPredicate(pred, cwpi.stmt(), cwpi.getIndex()));
 				}
 			}
 		}
 
 		// Extract predicates with 'this' as parameter
-		if (pred.getParameters().stream().anyMatch(param -> param.getName().equals("this"))) {
+		if (node.hasThisParameter()) {
 			RequiredCrySLPredicate reqPred = new RequiredCrySLPredicate(pred, object.getOrigin(), -1);
 
 			if (!result.contains(reqPred)) {
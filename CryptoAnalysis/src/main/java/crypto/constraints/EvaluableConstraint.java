@@ -1,7 +1,6 @@
 package crypto.constraints;
 
 import boomerang.BackwardQuery;
-import boomerang.Boomerang;
 import boomerang.ForwardQuery;
 import boomerang.results.BackwardBoomerangResults;
 import boomerang.results.ForwardBoomerangResults;
@@ -11,15 +10,16 @@ import boomerang.scene.InvokeExpr;
 import boomerang.scene.Method;
 import boomerang.scene.Statement;
 import boomerang.scene.Val;
-import boomerang.scene.jimple.IntAndStringBoomerangOptions;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
+import crypto.analysis.BoomerangSolverPool;
 import crypto.analysis.errors.AbstractError;
 import crypto.analysis.errors.ImpreciseValueExtractionError;
 import crypto.extractparameter.CallSiteWithExtractedValue;
 import crypto.extractparameter.CallSiteWithParamIndex;
 import crypto.extractparameter.ExtractedValue;
+import crypto.extractparameter.StaticConstantTable;
 import crypto.rules.CrySLComparisonConstraint;
 import crypto.rules.CrySLConstraint;
 import crypto.rules.CrySLExceptionConstraint;
@@ -30,25 +30,50 @@ import crypto.utils.SootUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public abstract class EvaluableConstraint {
 
 	protected static final Logger LOGGER = LoggerFactory.getLogger(EvaluableConstraint.class);
 
+	private static final String IMPRECISE_VALUE = "<imprecise>";
+
+	/**
+	 * Creates the evaluable constraint for a constraint of a fixed type.
+	 */
+	@FunctionalInterface
+	public interface Factory {
+		EvaluableConstraint create(ISLConstraint con, ConstraintSolver context);
+	}
+
 	public static EvaluableConstraint getInstance(ISLConstraint con, ConstraintSolver context) {
+		return getFactory(con).create(con, context);
+	}
+
+	/**
+	 * Select the factory for the type of the given constraint. The factory can be reused for all
+	 * constraints of the same type.
+	 *
+	 * @param con the constraint
+	 * @return the factory that creates the evaluable constraint
+	 */
+	public static Factory getFactory(ISLConstraint con) {
 		if (con instanceof CrySLComparisonConstraint) {
-			return new ComparisonConstraint(con, context);
+			return ComparisonConstraint::new;
 		} else if (con instanceof CrySLValueConstraint) {
-			return new ValueConstraint(con, context);
+			return ValueConstraint::new;
 		} else if (con instanceof CrySLPredicate) {
-			return new PredicateConstraint(con, context);
+			return PredicateConstraint::new;
 		} else if (con instanceof CrySLConstraint) {
-			return new BinaryConstraint((CrySLConstraint) con, context);
+			return (c, context) -> new BinaryConstraint((CrySLConstraint) c, context);
 		} else if (con instanceof CrySLExceptionConstraint) {
-			return new ExceptionConstraint((CrySLExceptionConstraint) con, context);
+			return (c, context) -> new ExceptionConstraint((CrySLExceptionConstraint) c, context);
 		}
 		throw new RuntimeException("Type of constraint is not supported");
 	}
@@ -75,14 +100,49 @@ public abstract class EvaluableConstraint {
 	}
 
 	protected Map<String, CallSiteWithExtractedValue> extractValueAsString(String varName) {
+		return context.getExtractedValues(varName, name -> computeValuesAsString(context, name));
+	}
+
+	/**
+	 * Collect the extracted values of the given variables as a key for the {@link ConstraintOutcomeCache}.
+	 * Values that could not be extracted precisely are marked, so they are not mixed up with regular
+	 * values. The key does not depend on a constraint, so the cache can be checked before a constraint
+	 * is bound to the seed.
+	 *
+	 * @param context the solver of the seed
+	 * @param varNames the variables in a fixed order
+	 * @return the sorted values of each variable
+	 */
+	static List<List<String>> getExtractedValuesKey(ConstraintSolver context, Collection<String> varNames) {
+		List<List<String>> key = new ArrayList<>(varNames.size());
+
+		for (String varName : varNames) {
+			Map<String, CallSiteWithExtractedValue> values = context.getExtractedValues(varName, name -> computeValuesAsString(context, name));
+			List<String> varValues = new ArrayList<>(values.keySet());
+
+			for (CallSiteWithExtractedValue value : values.values()) {
+				if (value.getVal().getValue().equals(Val.zero())) {
+					varValues.add(IMPRECISE_VALUE);
+					break;
+				}
+			}
+			Collections.sort(varValues);
+			key.add(varValues);
+		}
+		return key;
+	}
+
+	private static Map<String, CallSiteWithExtractedValue> computeValuesAsString(ConstraintSolver context, String varName) {
 		Map<String, CallSiteWithExtractedValue> varVal = Maps.newHashMap();
 		for (CallSiteWithParamIndex wrappedCallSite : context.getParsAndVals().keySet()) {
+			if (!wrappedCallSite.getVarName().equals(varName))
+				continue;
+
 			final Statement callSite = wrappedCallSite.stmt();
 
-			for (ExtractedValue wrappedAllocSite : context.getParsAndVals().get(wrappedCallSite)) {
+			for (ExtractedValue extractedValue : context.getParsAndVals().get(wrappedCallSite)) {
+				final ExtractedValue wrappedAllocSite = resolveStaticConstant(context, extractedValue);
 				final Statement allocSite = wrappedAllocSite.stmt();
-				if (!wrappedCallSite.getVarName().equals(varName))
-					continue;
 
 				InvokeExpr invoker = callSite.getInvokeExpr();
 				if (callSite.equals(allocSite)) {
@@ -109,7 +169,7 @@ public abstract class EvaluableConstraint {
 							varVal.put(retrieveConstantFromValue, new CallSiteWithExtractedValue(wrappedCallSite, wrappedAllocSite));
 						}
 					} else if (wrappedAllocSite.getValue().isNewExpr()) {
-						varVal.putAll(extractSootArray(wrappedCallSite, wrappedAllocSite));
+						varVal.putAll(extractSootArray(context, wrappedCallSite, wrappedAllocSite));
 					}
 				}
 			}
@@ -117,31 +177,44 @@ public abstract class EvaluableConstraint {
 		return varVal;
 	}
 
+	/**
+	 * Boomerang stops at reads of static fields. If the field is a static final field with a constant
+	 * value, the value is taken from the scan-wide table of static constants.
+	 *
+	 * @param context the solver of the seed
+	 * @param extractedValue the extracted value
+	 * @return the extracted value with the constant value of the field, or the extracted value itself
+	 */
+	private static ExtractedValue resolveStaticConstant(ConstraintSolver context, ExtractedValue extractedValue) {
+		Val value = extractedValue.getValue();
+		if (!value.isStaticFieldRef()) {
+			return extractedValue;
+		}
+
+		StaticConstantTable staticConstants = context.getObject().getScanner().getStaticConstantTable();
+		Optional<Val> constant = staticConstants.getConstant(value, extractedValue.stmt().getMethod());
+
+		return constant.map(val -> new ExtractedValue(extractedValue.stmt(), val)).orElse(extractedValue);
+	}
+
 	/***
 	 * Function that finds the values assigned to a soot array.
 	 * 
+	 * @param context    the solver of the seed
 	 * @param callSite   call site at which sootValue is involved
 	 * @param allocSite  allocation site at which sootValue is involved
 	 * @return extracted array values
 	 */
-	protected Map<String, CallSiteWithExtractedValue> extractSootArray(CallSiteWithParamIndex callSite,
+	protected static Map<String, CallSiteWithExtractedValue> extractSootArray(ConstraintSolver context, CallSiteWithParamIndex callSite,
 			ExtractedValue allocSite) {
 		Val arrayLocal = allocSite.getValue();
 		Method method = allocSite.stmt().getMethod();
 
 		Map<String, CallSiteWithExtractedValue> arrVal = Maps.newHashMap();
 
-		for (Statement statement : method.getStatements()) {
-			if (!statement.isAssign()) {
-				continue;
-			}
-
-			Val leftVal = statement.getLeftOp();
-			Val rightVal = statement.getRightOp();
-
-			if (leftVal.equals(arrayLocal) && !rightVal.toString().contains("newarray")) {
-				arrVal.put(retrieveConstantFromValue(rightVal), new CallSiteWithExtractedValue(callSite, allocSite));
-			}
+		ArrayDefinitionIndex arrayDefinitions = context.getObject().getScanner().getArrayDefinitionIndex();
+		for (Val rightVal : arrayDefinitions.getAssignedValues(method, arrayLocal)) {
+			arrVal.put(retrieveConstantFromValue(rightVal), new CallSiteWithExtractedValue(callSite, allocSite));
 		}
 
 		/*Body methodBody = allocSite.stmt().getMethod().getActiveBody();
@@ -164,7 +237,7 @@ public abstract class EvaluableConstraint {
 		return arrVal;
 	}
 
-	private String retrieveConstantFromValue(Val val) {
+	private static String retrieveConstantFromValue(Val val) {
 		if (val.isStringConstant()) {
 			return val.getStringValue();
 		} else if (val.isIntConstant()) {
@@ -190,45 +263,65 @@ public abstract class EvaluableConstraint {
 			return result;
 		}
 
+		// Arrays that are filled with constants in their allocating method do not require Boomerang
+		ArrayDefinitionIndex arrayDefinitions = context.getObject().getScanner().getArrayDefinitionIndex();
+		Optional<Map<Integer, Val>> constantValues = arrayDefinitions.getConstantArrayValues(statement.getMethod(), leftOp);
+		if (constantValues.isPresent()) {
+			result.putAll(constantValues.get());
+			return result;
+		}
+
 		AllocVal allocVal = new AllocVal(leftOp, statement, rightOp);
+		BoomerangSolverPool solverPool = context.getObject().getScanner().getBoomerangSolverPool();
 		for (Statement successor : statement.getMethod().getControlFlowGraph().getSuccsOf(statement)) {
 			ForwardQuery forwardQuery = new ForwardQuery(new ControlFlowGraph.Edge(statement, successor), allocVal);
+			Collection<Statement> arrayStores = solverPool.solve(BoomerangSolverPool.SolverType.ARRAY_ALLOCATION, forwardQuery, results -> getArrayStores(results, allocVal));
 
-			Boomerang solver = new Boomerang(context.getObject().getScanner().callGraph(), context.getObject().getScanner().getDataFlowScope());
-			ForwardBoomerangResults<?> results = solver.solve(forwardQuery);
-
-			for (Table.Cell<ControlFlowGraph.Edge, Val, ?> entry : results.asStatementValWeightTable().cellSet()) {
-				Statement stmt = entry.getRowKey().getStart();
-				if (!stmt.isArrayStore()) {
-					continue;
-				}
-
-				Val arrayBase = stmt.getLeftOp().getArrayBase().getX();
+			for (Statement stmt : arrayStores) {
 				Integer index = stmt.getLeftOp().getArrayBase().getY();
-				if (!arrayBase.equals(allocVal.getDelegate())) {
-					continue;
-				}
 
 				// TODO
 				ControlFlowGraph.Edge edge = new ControlFlowGraph.Edge(stmt.getMethod().getControlFlowGraph().getPredsOf(stmt).stream().findFirst().get(), stmt);
 				BackwardQuery backwardQuery = BackwardQuery.make(edge, stmt.getRightOp());
 
-				Boomerang indexSolver = new Boomerang(context.getObject().getScanner().callGraph(), context.getObject().getScanner().getDataFlowScope(), new IntAndStringBoomerangOptions());
-				BackwardBoomerangResults<?> indexValue = indexSolver.solve(backwardQuery);
+				Collection<Val> indexValues = solverPool.solve(BoomerangSolverPool.SolverType.ARRAY_VALUE, backwardQuery, EvaluableConstraint::getAssignedValues);
+				for (Val indexValue : indexValues) {
+					result.put(index, indexValue);
+				}
+			}
+		}
+
+		return result;
+	}
 
-				for (ForwardQuery allocSite : indexValue.getAllocationSites().keySet()) {
-					Statement allocStmt = allocSite.cfgEdge().getStart();
+	private static Collection<Statement> getArrayStores(ForwardBoomerangResults<?> results, AllocVal allocVal) {
+		Collection<Statement> arrayStores = new ArrayList<>();
 
-					if (!allocStmt.isAssign()) {
-						continue;
-					}
+		for (Table.Cell<ControlFlowGraph.Edge, Val, ?> entry : results.asStatementValWeightTable().cellSet()) {
+			Statement stmt = entry.getRowKey().getStart();
+			if (!stmt.isArrayStore()) {
+				continue;
+			}
 
-					result.put(index, allocStmt.getRightOp());
-				}
+			Val arrayBase = stmt.getLeftOp().getArrayBase().getX();
+			if (arrayBase.equals(allocVal.getDelegate())) {
+				arrayStores.add(stmt);
 			}
 		}
+		return arrayStores;
+	}
 
-		return result;
+	private static Collection<Val> getAssignedValues(BackwardBoomerangResults<?> results) {
+		Collection<Val> values = new ArrayList<>();
+
+		for (ForwardQuery allocSite : results.getAllocationSites().keySet()) {
+			Statement allocStmt = allocSite.cfgEdge().getStart();
+
+			if (allocStmt.isAssign()) {
+				values.add(allocStmt.getRightOp());
+			}
+		}
+		return values;
 	}
 
 	/**
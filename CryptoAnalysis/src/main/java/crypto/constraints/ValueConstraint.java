@@ -11,7 +11,6 @@ import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class ValueConstraint extends EvaluableConstraint {
 
@@ -27,9 +26,8 @@ public class ValueConstraint extends EvaluableConstraint {
 			return;
 		}
 
-		List<String> lowerCaseValues = valCons.getValueRange().parallelStream().map(String::toLowerCase).collect(Collectors.toList());
 		for (Map.Entry<String, CallSiteWithExtractedValue> val : values) {
-			if (!lowerCaseValues.contains(val.getKey().toLowerCase())) {
+			if (!valCons.isInValueRange(val.getKey())) {
 				ConstraintError error = new ConstraintError(context.getObject(), val.getValue(), context.getSpecification(), valCons);
 				errors.add(error);
 			}
@@ -45,23 +43,12 @@ public class ValueConstraint extends EvaluableConstraint {
 			return values;
 		}
 
+		CrySLSplitter splitter = var.getSplitter();
 		for (Map.Entry<String, CallSiteWithExtractedValue> e : valueCollection.entrySet()) {
-			CrySLSplitter splitter = var.getSplitter();
 			final CallSiteWithExtractedValue location = e.getValue();
 			String val = e.getKey();
 			if (splitter != null) {
-				int ind = splitter.getIndex();
-				String splitElement = splitter.getSplitter();
-				if (ind > 0) {
-					String[] splits = val.split(splitElement);
-					if (splits.length > ind) {
-						values.add(new AbstractMap.SimpleEntry<>(splits[ind], location));
-					} else {
-						values.add(new AbstractMap.SimpleEntry<>("", location));
-					}
-				} else {
-					values.add(new AbstractMap.SimpleEntry<>(val.split(splitElement)[ind], location));
-				}
+				values.add(new AbstractMap.SimpleEntry<>(splitter.getElement(val), location));
 			} else {
 				values.add(new AbstractMap.SimpleEntry<>(val, location));
 			}
@@ -41,7 +41,7 @@ public class StateMachineGraphBuilder {
 		StateNode initialNode = new StateNode("-1", true, false);
 		this.result.addNode(initialNode);
 		SubStateMachine subSmg = buildSubSMG(this.order, Collections.singleton(initialNode));
-		subSmg.getEndNodes().parallelStream().forEach(StateNode::makeAccepting);
+		subSmg.getEndNodes().forEach(StateNode::makeAccepting);
 		return this.result;
 	}
 
@@ -1,9 +1,7 @@
 package crypto.extractparameter;
 
 import boomerang.BackwardQuery;
-import boomerang.Boomerang;
 import boomerang.ForwardQuery;
-import boomerang.results.BackwardBoomerangResults;
 import boomerang.scene.AllocVal;
 import boomerang.scene.ControlFlowGraph;
 import boomerang.scene.DeclaredMethod;
@@ -16,16 +14,17 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.BoomerangSolverPool;
 import crypto.rules.CrySLMethod;
 import crypto.typestate.LabeledMatcherTransition;
 import crypto.typestate.MatcherTransitionCollection;
 import heros.utilities.DefaultValueMap;
 import soot.Scene;
-import wpds.impl.Weight.NoWeight;
 
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class ExtractParameterAnalysis {
 
@@ -65,11 +64,32 @@ public class ExtractParameterAnalysis {
 			}
 		}
 
+		TieredExtraction<AdditionalBoomerangQuery, ExtractedQueryResults> extraction = new TieredExtraction<>(seed.getScanner().getTimeout(), this::solveTier, ExtractedQueryResults::isTimedout, seed.getScanner().getExtractParameterStatistics());
+		Map<AdditionalBoomerangQuery, ExtractedQueryResults> results = extraction.solve(additionalBoomerangQuery.keySet());
+
 		for (AdditionalBoomerangQuery q : additionalBoomerangQuery.keySet()) {
-			q.solve();
+			q.onSolved(results.get(q));
 		}
 	}
 
+	private ExtractedQueryResults solveTier(AdditionalBoomerangQuery query, ExtractionTier tier, int timeout) {
+		ExtractParameterCache cache = seed.getScanner().getExtractParameterCache();
+		BoomerangSolverPool solverPool = seed.getScanner().getBoomerangSolverPool();
+
+		return cache.getOrSolve(query, timeout, q -> {
+			if (tier == ExtractionTier.BOUNDED && timeout == tier.getTimeout(seed.getScanner().getTimeout())) {
+				return solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER_BOUNDED, q, ExtractedQueryResults::of);
+			}
+
+			if (tier == ExtractionTier.FULL && timeout == tier.getTimeout(seed.getScanner().getTimeout())) {
+				return solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER, q, ExtractedQueryResults::of);
+			}
+
+			// The pooled solvers use the timeout of their tier, so queries with other timeouts get their own solver
+			return solverPool.solve(new ExtractParameterOptions(timeout), q, ExtractedQueryResults::of);
+		});
+	}
+
 	public Multimap<CallSiteWithParamIndex, ExtractedValue> getCollectedValues() {
 		return collectedValues;
 	}
@@ -83,9 +103,18 @@ public class ExtractParameterAnalysis {
 	}
 
 	private void injectQueryAtCallSite(CrySLMethod match, Statement callSite) {
+		Set<String> usedVariables = seed.getSpecification().getUsedVariables();
+
 		int index = 0;
-		for (Map.Entry<String, String> param : match.getParameters())
-			addQueryAtCallSite(param.getKey(), callSite, index++);
+		for (Map.Entry<String, String> param : match.getParameters()) {
+			// Values of variables that no constraint or predicate refers to are never evaluated
+			if (usedVariables.contains(param.getKey())) {
+				addQueryAtCallSite(param.getKey(), callSite, index);
+			} else {
+				seed.getScanner().getExtractParameterStatistics().onParameterSkipped();
+			}
+			index++;
+		}
 	}
 
 	public void addQueryAtCallSite(String varNameInSpecification, Statement statement, int index) {
@@ -101,22 +130,35 @@ public class ExtractParameterAnalysis {
 			return;
 		}
 
+		StaticConstantTable staticConstants = seed.getScanner().getStaticConstantTable();
+		Optional<ExtractedValue> constantValue = LocalConstantResolver.findConstantValue(statement, parameter, staticConstants);
+		if (constantValue.isPresent()) {
+			CallSiteWithParamIndex cs = new CallSiteWithParamIndex(statement, parameter, index, varNameInSpecification);
+			collectedValues.put(cs, constantValue.get());
+			propagatedTypes.put(cs, parameter.getType());
+			querySites.add(cs);
+
+			seed.getScanner().getExtractParameterStatistics().onResolvedLocally();
+			return;
+		}
+		seed.getScanner().getExtractParameterStatistics().onEscalatedToBoomerang();
+
 		Collection<Statement> predecessors = statement.getMethod().getControlFlowGraph().getPredsOf(statement);
 		for (Statement pred : predecessors) {
 			AdditionalBoomerangQuery query = additionalBoomerangQuery.getOrCreate(new AdditionalBoomerangQuery(new ControlFlowGraph.Edge(pred, statement), parameter));
 			CallSiteWithParamIndex callSiteWithParamIndex = new CallSiteWithParamIndex(statement, parameter, index, varNameInSpecification);
 			querySites.add(callSiteWithParamIndex);
 			query.addListener((q, res) -> {
-                propagatedTypes.putAll(callSiteWithParamIndex, res.getPropagationType());
+                propagatedTypes.putAll(callSiteWithParamIndex, res.getPropagationTypes());
 
 				// If the allocation site could not be extracted, add the zero value for indication
-				if (res.getAllocationSites().keySet().isEmpty()) {
+				if (res.getAllocationSites().isEmpty()) {
 					ExtractedValue zeroValue = new ExtractedValue(callSiteWithParamIndex.stmt(), Val.zero());
 					collectedValues.put(callSiteWithParamIndex, zeroValue);
 					return;
 				}
 
-                for (ForwardQuery v : res.getAllocationSites().keySet()) {
+                for (ForwardQuery v : res.getAllocationSites()) {
 					ExtractedValue extractedValue;
                     if (v.var() instanceof AllocVal) {
                         AllocVal allocVal = (AllocVal) v.var();
@@ -145,17 +187,15 @@ public class ExtractParameterAnalysis {
 	private class AdditionalBoomerangQuery extends BackwardQuery {
 
 		private final Collection<QueryListener> listeners = Lists.newLinkedList();
-		private BackwardBoomerangResults<NoWeight> res;
+		private ExtractedQueryResults res;
 		private boolean solved;
 
 		public AdditionalBoomerangQuery(ControlFlowGraph.Edge stmt, Val variable) {
 			super(stmt, variable);
 		}
 
-		public void solve() {
-			ExtractParameterOptions options = new ExtractParameterOptions(seed.getScanner().getTimeout());
-			Boomerang boomerang = new Boomerang(seed.getScanner().callGraph(), seed.getScanner().getDataFlowScope(), options);
-			res = boomerang.solve(this);
+		public void onSolved(ExtractedQueryResults results) {
+			res = results;
 
 			if (res.isTimedout()) {
 				seed.getScanner().getAnalysisReporter().onExtractParameterAnalysisTimeout(seed, var(), cfgEdge().getTarget());
@@ -165,7 +205,6 @@ public class ExtractParameterAnalysis {
 				l.solved(this, res);
 			}
 			solved = true;
-			boomerang.unregisterAllListeners();
 		}
 
 		public void addListener(QueryListener q) {
@@ -179,7 +218,7 @@ public class ExtractParameterAnalysis {
 	}
 
 	private interface QueryListener {
-		void solved(AdditionalBoomerangQuery q, BackwardBoomerangResults<NoWeight> res);
+		void solved(AdditionalBoomerangQuery q, ExtractedQueryResults res);
 	}
 
 }
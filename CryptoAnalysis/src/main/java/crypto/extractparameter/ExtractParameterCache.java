@@ -0,0 +1,100 @@
+package crypto.extractparameter;
+
+import boomerang.BackwardQuery;
+import boomerang.scene.ControlFlowGraph;
+import boomerang.scene.Val;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Scan-wide cache for the backward queries of the {@link ExtractParameterAnalysis}. Seeds that share
+ * call sites or argument locals issue identical queries, so their results are solved only once. The
+ * cache is bounded in its size and holds its results with soft references, i.e. they are evicted by
+ * the garbage collector under memory pressure and recomputed on the next request.
+ */
+public class ExtractParameterCache {
+
+	private static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+	private final Cache<QueryKey, ExtractedQueryResults> cache;
+
+	public ExtractParameterCache() {
+		this(DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public ExtractParameterCache(long maximumSize) {
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(maximumSize)
+				.softValues()
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns the results for the given query. Cached results are returned directly, otherwise the
+	 * query is solved by the given solver and its results are added to the cache. The lookup is
+	 * atomic per query, i.e. concurrent requests for the same query wait for a single solver call.
+	 *
+	 * @param query the backward query
+	 * @param timeout the timeout of the solver; results for different timeouts are cached separately
+	 * @param solver the function that solves the query if there are no cached results
+	 * @param <Q> the type of the query
+	 * @return the results of the query
+	 */
+	public <Q extends BackwardQuery> ExtractedQueryResults getOrSolve(Q query, int timeout, Function<Q, ExtractedQueryResults> solver) {
+		QueryKey key = new QueryKey(query.cfgEdge(), query.var(), timeout);
+
+		try {
+			return cache.get(key, () -> solver.apply(query));
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Could not solve query " + query + ": " + e.getCause().getMessage(), e.getCause());
+		}
+	}
+
+	public CacheStats getStatistics() {
+		return cache.stats();
+	}
+
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * The queries themselves keep references to their listeners, hence the cache is keyed by
+	 * the edge, the value and the timeout only.
+	 */
+	private static final class QueryKey {
+
+		private final ControlFlowGraph.Edge edge;
+		private final Val val;
+		private final int timeout;
+
+		private QueryKey(ControlFlowGraph.Edge edge, Val val, int timeout) {
+			this.edge = edge;
+			this.val = val;
+			this.timeout = timeout;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(edge, val, timeout);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof QueryKey)) {
+				return false;
+			}
+			QueryKey other = (QueryKey) obj;
+			return timeout == other.timeout && Objects.equals(edge, other.edge) && Objects.equals(val, other.val);
+		}
+	}
+}
@@ -18,9 +18,15 @@ import java.util.Optional;
 public class ExtractParameterOptions extends IntAndStringBoomerangOptions {
 
 	private final int timeout;
+	private final boolean allowMultipleQueries;
 
 	public ExtractParameterOptions(int timeout) {
+		this(timeout, false);
+	}
+
+	public ExtractParameterOptions(int timeout, boolean allowMultipleQueries) {
 		this.timeout = timeout;
+		this.allowMultipleQueries = allowMultipleQueries;
 	}
 
 	@Override
@@ -166,4 +172,9 @@ public class ExtractParameterOptions extends IntAndStringBoomerangOptions {
 	public boolean trackStaticFieldAtEntryPointToClinit() {
 		return true;
 	}
+
+	@Override
+	public boolean allowMultipleQueries() {
+		return allowMultipleQueries;
+	}
 }
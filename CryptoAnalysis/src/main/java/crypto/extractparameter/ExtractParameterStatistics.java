@@ -0,0 +1,98 @@
+package crypto.extractparameter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Scan-wide counters of the {@link ExtractParameterAnalysis}. The counters are thread-safe, so
+ * seeds may be analyzed concurrently.
+ */
+public class ExtractParameterStatistics {
+
+	private final AtomicInteger skippedParameters = new AtomicInteger();
+	private final AtomicInteger resolvedLocally = new AtomicInteger();
+	private final AtomicInteger escalatedToBoomerang = new AtomicInteger();
+	private final AtomicInteger skippedEscalations = new AtomicInteger();
+	private final AtomicIntegerArray queriesPerTier = new AtomicIntegerArray(ExtractionTier.values().length);
+	private final AtomicIntegerArray timeoutsPerTier = new AtomicIntegerArray(ExtractionTier.values().length);
+
+	/**
+	 * A parameter was not extracted because the rule does not use its variable.
+	 */
+	public void onParameterSkipped() {
+		skippedParameters.incrementAndGet();
+	}
+
+	/**
+	 * A parameter was resolved by the intra-procedural constant propagation, i.e. no Boomerang
+	 * query was required.
+	 */
+	public void onResolvedLocally() {
+		resolvedLocally.incrementAndGet();
+	}
+
+	/**
+	 * A parameter could not be resolved locally and is extracted by a Boomerang query.
+	 */
+	public void onEscalatedToBoomerang() {
+		escalatedToBoomerang.incrementAndGet();
+	}
+
+	/**
+	 * Queries were solved in the given tier.
+	 *
+	 * @param tier the extraction tier
+	 * @param queries the number of queries
+	 * @param timeouts the number of queries that timed out
+	 */
+	public void onTierSolved(ExtractionTier tier, int queries, int timeouts) {
+		queriesPerTier.addAndGet(tier.ordinal(), queries);
+		timeoutsPerTier.addAndGet(tier.ordinal(), timeouts);
+	}
+
+	/**
+	 * A query that timed out was not solved in the next tier because its timeout or the budget of
+	 * its seed was used up.
+	 */
+	public void onEscalationSkipped() {
+		skippedEscalations.incrementAndGet();
+	}
+
+	public int getSkippedParameters() {
+		return skippedParameters.get();
+	}
+
+	public int getResolvedLocally() {
+		return resolvedLocally.get();
+	}
+
+	public int getEscalatedToBoomerang() {
+		return escalatedToBoomerang.get();
+	}
+
+	public int getSkippedEscalations() {
+		return skippedEscalations.get();
+	}
+
+	public int getQueries(ExtractionTier tier) {
+		return queriesPerTier.get(tier.ordinal());
+	}
+
+	public int getTimeouts(ExtractionTier tier) {
+		return timeoutsPerTier.get(tier.ordinal());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Parameter extraction: ").append(skippedParameters.get()).append(" unused parameters skipped, ").append(resolvedLocally.get()).append(" parameters resolved locally, ")
+				.append(escalatedToBoomerang.get()).append(" escalated to Boomerang");
+
+		for (ExtractionTier tier : ExtractionTier.values()) {
+			builder.append(", ").append(tier).append(": ").append(getQueries(tier)).append(" queries (")
+					.append(getTimeouts(tier)).append(" timeouts)");
+		}
+		builder.append(", ").append(skippedEscalations.get()).append(" timed-out queries not solved again after their time was used up");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,48 @@
+package crypto.extractparameter;
+
+import boomerang.ForwardQuery;
+import boomerang.results.BackwardBoomerangResults;
+import boomerang.scene.Type;
+import wpds.impl.Weight.NoWeight;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * The parts of the {@link BackwardBoomerangResults} of an extraction query that the
+ * {@link ExtractParameterAnalysis} consumes. The values are copied when the query is solved, such
+ * that cached results do not keep the internal state of the solver reachable and the solver can be
+ * released right after the query.
+ */
+public class ExtractedQueryResults {
+
+	private final Collection<ForwardQuery> allocationSites;
+	private final Collection<Type> propagationTypes;
+	private final boolean timedOut;
+
+	private ExtractedQueryResults(Collection<ForwardQuery> allocationSites, Collection<Type> propagationTypes, boolean timedOut) {
+		this.allocationSites = allocationSites;
+		this.propagationTypes = propagationTypes;
+		this.timedOut = timedOut;
+	}
+
+	public static ExtractedQueryResults of(BackwardBoomerangResults<NoWeight> results) {
+		Collection<ForwardQuery> allocationSites = new ArrayList<>(results.getAllocationSites().keySet());
+		Collection<Type> propagationTypes = new HashSet<>(results.getPropagationType());
+
+		return new ExtractedQueryResults(allocationSites, propagationTypes, results.isTimedout());
+	}
+
+	public Collection<ForwardQuery> getAllocationSites() {
+		return allocationSites;
+	}
+
+	public Collection<Type> getPropagationTypes() {
+		return propagationTypes;
+	}
+
+	public boolean isTimedout() {
+		return timedOut;
+	}
+}
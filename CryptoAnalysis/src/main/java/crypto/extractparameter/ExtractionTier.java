@@ -0,0 +1,51 @@
+package crypto.extractparameter;
+
+/**
+ * Tiers of the backward queries in the {@link ExtractParameterAnalysis}. All queries are solved in
+ * the bounded tier first. Only queries that time out are escalated to the next tier, so a single
+ * pathological parameter does not consume the budget of all other parameters. Each query keeps the
+ * scanner's timeout as its bound over the bounded and the full tier. Queries that still time out get
+ * a deferred pass with the time the other queries of the seed did not use.
+ */
+public enum ExtractionTier {
+
+	/** Queries with a fraction of the timeout; most parameters are resolved in this tier */
+	BOUNDED,
+	/** Queries that timed out in the bounded tier are solved again with the rest of their timeout */
+	FULL,
+	/** Queries that timed out in the full tier are solved again if the seed's budget remains */
+	DEFERRED;
+
+	private static final int BOUNDED_TIMEOUT_DIVISOR = 10;
+	private static final int MIN_BOUNDED_TIMEOUT = 100;
+	private static final int DEFERRED_TIMEOUT_FACTOR = 2;
+
+	/**
+	 * Returns the timeout for a query in this tier.
+	 *
+	 * @param timeout the timeout of the scanner
+	 * @return the timeout for a single query in this tier
+	 */
+	public int getTimeout(int timeout) {
+		switch (this) {
+			case BOUNDED:
+				return Math.min(timeout, Math.max(timeout / BOUNDED_TIMEOUT_DIVISOR, MIN_BOUNDED_TIMEOUT));
+			case DEFERRED:
+				return timeout * DEFERRED_TIMEOUT_FACTOR;
+			default:
+				return timeout;
+		}
+	}
+
+	/**
+	 * Returns the total time the queries of a seed may spend in all tiers. This is the time the
+	 * queries could spend if each query was solved once with the scanner's timeout.
+	 *
+	 * @param timeout the timeout of the scanner
+	 * @param queries the number of queries of the seed
+	 * @return the budget per seed
+	 */
+	public static long getSeedBudget(int timeout, int queries) {
+		return (long) timeout * queries;
+	}
+}
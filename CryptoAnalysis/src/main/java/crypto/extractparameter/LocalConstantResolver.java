@@ -0,0 +1,62 @@
+package crypto.extractparameter;
+
+import boomerang.scene.Statement;
+import boomerang.scene.Val;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Cheap intra-procedural constant propagation for parameters. Most constant parameters are assigned
+ * to a local a few statements before the call (e.g. 'String alg = "AES"; Cipher.getInstance(alg)').
+ * The resolver walks the straight-line code before the call backwards and returns the definition of
+ * the local if it assigns a constant or a static final field with a constant value. As soon as the
+ * walk reaches a merge point, the start of the method or the step limit, the parameter is left to
+ * Boomerang.
+ */
+public class LocalConstantResolver {
+
+	private static final int MAX_STEPS = 50;
+
+	private LocalConstantResolver() {}
+
+	/**
+	 * Find the constant that is assigned to the given local before the call site.
+	 *
+	 * @param callSite the statement that uses the local
+	 * @param local the local variable
+	 * @param staticConstants the table to resolve static final fields
+	 * @return the definition 'local = constant' or 'local = field' with the constant value if it is the
+	 * 		   only definition that reaches the call site
+	 */
+	public static Optional<ExtractedValue> findConstantValue(Statement callSite, Val local, StaticConstantTable staticConstants) {
+		if (!local.isLocal()) {
+			return Optional.empty();
+		}
+
+		Statement current = callSite;
+		for (int i = 0; i < MAX_STEPS; i++) {
+			Collection<Statement> predecessors = current.getMethod().getControlFlowGraph().getPredsOf(current);
+
+			// Multiple predecessors may contain different definitions
+			if (predecessors.size() != 1) {
+				return Optional.empty();
+			}
+			current = predecessors.iterator().next();
+
+			if (!current.isAssign() || !current.getLeftOp().equals(local)) {
+				continue;
+			}
+
+			Val rightOp = current.getRightOp();
+			if (rightOp.isStringConstant() || rightOp.isIntConstant() || rightOp.isLongConstant()) {
+				return Optional.of(new ExtractedValue(current, rightOp));
+			}
+
+			Statement definition = current;
+			Optional<Val> fieldConstant = staticConstants.getConstant(rightOp, definition.getMethod());
+			return fieldConstant.map(constant -> new ExtractedValue(definition, constant));
+		}
+		return Optional.empty();
+	}
+}
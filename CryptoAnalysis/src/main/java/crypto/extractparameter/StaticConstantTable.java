@@ -0,0 +1,179 @@
+package crypto.extractparameter;
+
+import boomerang.scene.Method;
+import boomerang.scene.Val;
+import boomerang.scene.jimple.JimpleVal;
+import soot.Body;
+import soot.Local;
+import soot.SootClass;
+import soot.SootField;
+import soot.SootMethod;
+import soot.Unit;
+import soot.Value;
+import soot.jimple.AssignStmt;
+import soot.jimple.Constant;
+import soot.jimple.IntConstant;
+import soot.jimple.LongConstant;
+import soot.jimple.StaticFieldRef;
+import soot.jimple.StringConstant;
+import soot.tagkit.ConstantValueTag;
+import soot.tagkit.Tag;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scan-wide table of static final fields with a constant value. Algorithm names and key sizes are
+ * often stored in constant fields of configuration classes, e.g. 'static final String ALG = "AES"'.
+ * Without the table, each use of such a field requires an interprocedural Boomerang query through
+ * the static initializer.
+ * <p>
+ * The constant fields of a class are resolved once, when a field of the class is looked up for the
+ * first time. A field is constant if it has a ConstantValue attribute or if the static initializer
+ * of its class assigns exactly one constant to it, either directly or via a local that is assigned
+ * exactly once.
+ */
+public class StaticConstantTable {
+
+	private static final String STATIC_INITIALIZER = "void <clinit>()";
+
+	private final Map<SootClass, Map<SootField, Constant>> constants = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the constant value of the static field that is referenced by the given value.
+	 *
+	 * @param val the value that may reference a static field
+	 * @param method the method that contains the value
+	 * @return the constant value of the field, if the value is a reference to a static final field with
+	 * 		   a constant value
+	 */
+	public Optional<Val> getConstant(Val val, Method method) {
+		if (!val.isStaticFieldRef() || !(val instanceof JimpleVal)) {
+			return Optional.empty();
+		}
+
+		Value delegate = ((JimpleVal) val).getDelegate();
+		if (!(delegate instanceof StaticFieldRef)) {
+			return Optional.empty();
+		}
+
+		SootField field;
+		try {
+			field = ((StaticFieldRef) delegate).getField();
+		} catch (RuntimeException e) {
+			// The field cannot be resolved (e.g. it is declared in a phantom class)
+			return Optional.empty();
+		}
+
+		if (!field.isStatic() || !field.isFinal()) {
+			return Optional.empty();
+		}
+
+		Map<SootField, Constant> classConstants = constants.computeIfAbsent(field.getDeclaringClass(), this::resolveConstants);
+		Constant constant = classConstants.get(field);
+
+		if (constant == null) {
+			return Optional.empty();
+		}
+		return Optional.of(new JimpleVal(constant, method));
+	}
+
+	public void clear() {
+		constants.clear();
+	}
+
+	private Map<SootField, Constant> resolveConstants(SootClass sootClass) {
+		Map<SootField, Constant> result = new HashMap<>();
+
+		for (SootField field : sootClass.getFields()) {
+			if (!field.isStatic() || !field.isFinal()) {
+				continue;
+			}
+
+			for (Tag tag : field.getTags()) {
+				if (tag instanceof ConstantValueTag) {
+					Constant constant = ((ConstantValueTag) tag).getConstant();
+
+					if (isSupportedConstant(constant)) {
+						result.put(field, constant);
+					}
+				}
+			}
+		}
+
+		SootMethod staticInitializer = sootClass.getMethodUnsafe(STATIC_INITIALIZER);
+		if (staticInitializer == null || !staticInitializer.isConcrete()) {
+			return result;
+		}
+
+		Body body;
+		try {
+			body = staticInitializer.retrieveActiveBody();
+		} catch (RuntimeException e) {
+			return result;
+		}
+
+		// Locals and fields that are assigned more than once are not constant
+		Map<Local, Value> localDefinitions = new HashMap<>();
+		Set<Local> redefinedLocals = new HashSet<>();
+		Map<SootField, Value> fieldDefinitions = new HashMap<>();
+		Set<SootField> redefinedFields = new HashSet<>();
+
+		for (Unit unit : body.getUnits()) {
+			if (!(unit instanceof AssignStmt)) {
+				continue;
+			}
+
+			AssignStmt assignStmt = (AssignStmt) unit;
+			Value leftOp = assignStmt.getLeftOp();
+			Value rightOp = assignStmt.getRightOp();
+
+			if (leftOp instanceof Local) {
+				Local local = (Local) leftOp;
+
+				if (localDefinitions.put(local, rightOp) != null) {
+					redefinedLocals.add(local);
+				}
+			} else if (leftOp instanceof StaticFieldRef) {
+				SootField field = ((StaticFieldRef) leftOp).getField();
+
+				if (!field.getDeclaringClass().equals(sootClass) || !field.isFinal()) {
+					continue;
+				}
+
+				if (fieldDefinitions.put(field, rightOp) != null) {
+					redefinedFields.add(field);
+				}
+			}
+		}
+
+		for (Map.Entry<SootField, Value> entry : fieldDefinitions.entrySet()) {
+			SootField field = entry.getKey();
+			Value value = entry.getValue();
+
+			if (redefinedFields.contains(field) || result.containsKey(field)) {
+				continue;
+			}
+
+			if (value instanceof Local) {
+				if (redefinedLocals.contains(value)) {
+					continue;
+				}
+				value = localDefinitions.get(value);
+			}
+
+			if (value instanceof Constant && isSupportedConstant((Constant) value)) {
+				result.put(field, (Constant) value);
+			}
+		}
+		return result;
+	}
+
+	private static boolean isSupportedConstant(Constant constant) {
+		return constant instanceof StringConstant || constant instanceof IntConstant || constant instanceof LongConstant;
+	}
+}
@@ -0,0 +1,120 @@
+package crypto.extractparameter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Solves the extraction queries of a seed in the {@link ExtractionTier}s:
+ * <ol>
+ *     <li>All queries are solved with the timeout of the bounded tier.</li>
+ *     <li>Each query that timed out is solved again with the scanner's timeout minus the time it spent
+ *     in the bounded tier, i.e. each query is bounded by the scanner's timeout as before.</li>
+ *     <li>Queries that still time out are solved with the timeout of the deferred tier, as long as the
+ *     seed's budget (see {@link ExtractionTier#getSeedBudget(int, int)}) is not used up. A deferred
+ *     query gets at most the remaining budget.</li>
+ * </ol>
+ * Queries that are not solved again keep the results of their last tier.
+ *
+ * @param <Q> the type of the queries
+ * @param <R> the type of the query results
+ */
+public class TieredExtraction<Q, R> {
+
+	public interface TierSolver<Q, R> {
+
+		/**
+		 * Solve a query in a tier.
+		 *
+		 * @param query the query
+		 * @param tier the tier
+		 * @param timeout the timeout of the query, which may be lower than the timeout of the tier
+		 * @return the results of the query
+		 */
+		R solve(Q query, ExtractionTier tier, int timeout);
+	}
+
+	private final int timeout;
+	private final TierSolver<Q, R> solver;
+	private final Predicate<R> isTimedOut;
+	private final ExtractParameterStatistics statistics;
+	private final LongSupplier clock;
+
+	public TieredExtraction(int timeout, TierSolver<Q, R> solver, Predicate<R> isTimedOut, ExtractParameterStatistics statistics) {
+		this(timeout, solver, isTimedOut, statistics, System::currentTimeMillis);
+	}
+
+	public TieredExtraction(int timeout, TierSolver<Q, R> solver, Predicate<R> isTimedOut, ExtractParameterStatistics statistics, LongSupplier clock) {
+		this.timeout = timeout;
+		this.solver = solver;
+		this.isTimedOut = isTimedOut;
+		this.statistics = statistics;
+		this.clock = clock;
+	}
+
+	/**
+	 * Solve the queries in the tiers.
+	 *
+	 * @param queries the queries
+	 * @return the results of the last tier of each query
+	 */
+	public Map<Q, R> solve(Collection<Q> queries) {
+		Map<Q, R> results = new LinkedHashMap<>();
+		long budget = ExtractionTier.getSeedBudget(timeout, queries.size());
+		long spent = 0;
+
+		// If the timeout is already small, the bounded tier would not be cheaper
+		int boundedTimeout = ExtractionTier.BOUNDED.getTimeout(timeout);
+		boolean bounded = boundedTimeout < timeout;
+
+		Collection<Q> timedOutQueries = new ArrayList<>();
+		for (Q query : queries) {
+			long start = clock.getAsLong();
+			R queryResults = bounded ? solveTier(query, ExtractionTier.BOUNDED, boundedTimeout) : solveTier(query, ExtractionTier.FULL, timeout);
+			long time = clock.getAsLong() - start;
+			spent += time;
+
+			if (bounded && isTimedOut.test(queryResults)) {
+				// Escalate with the rest of the query's timeout
+				long remainingTimeout = timeout - time;
+				if (remainingTimeout > 0) {
+					start = clock.getAsLong();
+					queryResults = solveTier(query, ExtractionTier.FULL, (int) remainingTimeout);
+					spent += clock.getAsLong() - start;
+				} else {
+					statistics.onEscalationSkipped();
+				}
+			}
+
+			results.put(query, queryResults);
+			if (isTimedOut.test(queryResults)) {
+				timedOutQueries.add(query);
+			}
+		}
+
+		// Deferred pass with the time the other queries did not use
+		int deferredTimeout = ExtractionTier.DEFERRED.getTimeout(timeout);
+		for (Q query : timedOutQueries) {
+			long remainingBudget = budget - spent;
+			if (remainingBudget <= 0) {
+				statistics.onEscalationSkipped();
+				continue;
+			}
+
+			long start = clock.getAsLong();
+			results.put(query, solveTier(query, ExtractionTier.DEFERRED, (int) Math.min(deferredTimeout, remainingBudget)));
+			spent += clock.getAsLong() - start;
+		}
+		return results;
+	}
+
+	private R solveTier(Q query, ExtractionTier tier, int queryTimeout) {
+		R results = solver.solve(query, tier, queryTimeout);
+
+		statistics.onTierSolved(tier, 1, isTimedOut.test(results) ? 1 : 0);
+		return results;
+	}
+}
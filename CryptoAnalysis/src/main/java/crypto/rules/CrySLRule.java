@@ -1,8 +1,12 @@
 package crypto.rules;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
+import java.util.Set;
 
 public class CrySLRule {
 
@@ -21,6 +25,8 @@ public class CrySLRule {
 	private final Collection<CrySLPredicate> predicates;
 	
 	private final Collection<CrySLPredicate> negatedPredicates;
+
+	private final Set<String> usedVariables;
 	
 	public CrySLRule(String className, Collection<Map.Entry<String, String>> objects, Collection<CrySLForbiddenMethod> forbiddenMethods, Collection<CrySLMethod> events, StateMachineGraph usagePattern, Collection<ISLConstraint> constraints, Collection<CrySLPredicate> predicates, Collection<CrySLPredicate> negatedPredicates) {
 		this.className = className;
@@ -31,6 +37,33 @@ public class CrySLRule {
 		this.constraints = constraints;
 		this.predicates = predicates;
 		this.negatedPredicates = negatedPredicates;
+		this.usedVariables = computeUsedVariables();
+	}
+
+	/**
+	 * Collect the variables that occur in the CONSTRAINTS, REQUIRES, ENSURES and NEGATES sections.
+	 * The values of all other variables (e.g. '_' or plaintext buffers) are never evaluated.
+	 */
+	private Set<String> computeUsedVariables() {
+		Set<String> variables = new HashSet<>();
+
+		if (constraints != null) {
+			for (ISLConstraint constraint : constraints) {
+				variables.addAll(constraint.getInvolvedVarNames());
+			}
+		}
+
+		for (Collection<CrySLPredicate> preds : Arrays.asList(predicates, negatedPredicates)) {
+			if (preds == null) {
+				continue;
+			}
+
+			for (CrySLPredicate pred : preds) {
+				variables.addAll(pred.getInvolvedVarNames());
+				pred.getConstraint().ifPresent(condition -> variables.addAll(condition.getInvolvedVarNames()));
+			}
+		}
+		return Collections.unmodifiableSet(variables);
 	}
 	
 	
@@ -118,6 +151,13 @@ public class CrySLRule {
 		return requires;
 	}
 
+	/**
+	 * @return the variables whose values are required to evaluate the rule
+	 */
+	public Set<String> getUsedVariables() {
+		return usedVariables;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder outputSB = new StringBuilder();
@@ -2,12 +2,29 @@ package crypto.rules;
 
 public class CrySLSplitter {
 
+	private static final String REGEX_META_CHARACTERS = ".$|()[]{}^?*+\\";
+
 	private final int index;
 	private final String split;
+	private final boolean literal;
 	
 	public CrySLSplitter(int ind, String spl) {
 		this.index = ind;
 		this.split = spl;
+		this.literal = isLiteral(spl);
+	}
+
+	private static boolean isLiteral(String spl) {
+		if (spl.isEmpty()) {
+			return false;
+		}
+
+		for (int i = 0; i < spl.length(); i++) {
+			if (REGEX_META_CHARACTERS.indexOf(spl.charAt(i)) >= 0) {
+				return false;
+			}
+		}
+		return true;
 	}
 	
 	public int getIndex() {
@@ -18,6 +35,34 @@ public class CrySLSplitter {
 		return split;
 	}
 
+	/**
+	 * Returns the element at the splitter's index after splitting the value, e.g. "GCM" for the
+	 * transformation "AES/GCM/NoPadding" and the splitter '.split("/")[1]'. Literal splitters are
+	 * located with {@link String#indexOf(String, int)}, so only the requested element is copied.
+	 *
+	 * @param value the value to split
+	 * @return the element at the index, or an empty string if the value has fewer elements
+	 */
+	public String getElement(String value) {
+		if (!literal) {
+			String[] splits = value.split(split);
+			return splits.length > index ? splits[index] : "";
+		}
+
+		int start = 0;
+		for (int i = 0; i < index; i++) {
+			int next = value.indexOf(split, start);
+
+			if (next < 0) {
+				return "";
+			}
+			start = next + split.length();
+		}
+
+		int end = value.indexOf(split, start);
+		return end < 0 ? value.substring(start) : value.substring(start, end);
+	}
+
 	@Override
 	public boolean equals(Object other) {
 		if(!(other instanceof CrySLSplitter))
@@ -1,16 +1,24 @@
 package crypto.rules;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class CrySLValueConstraint extends CrySLLiteral {
 
 	CrySLObject var;
 	List<String> valueRange;
+	private final Set<String> normalizedValueRange;
 
 	public CrySLValueConstraint(CrySLObject name, List<String> values) {
 		var = name;
 		valueRange = values;
+
+		normalizedValueRange = new HashSet<>();
+		for (String value : values) {
+			normalizedValueRange.add(value.toLowerCase());
+		}
 	}
 	
 	/**
@@ -35,6 +43,16 @@ public class CrySLValueConstraint extends CrySLLiteral {
 		return valueRange;
 	}
 
+	/**
+	 * Check whether a value is in the value range. The comparison ignores the case.
+	 *
+	 * @param value the value
+	 * @return true if the value range contains the value
+	 */
+	public boolean isInValueRange(String value) {
+		return normalizedValueRange.contains(value.toLowerCase());
+	}
+
 	public String toString() {
 		StringBuilder vCSB = new StringBuilder();
 		vCSB.append("VC:");
@@ -2,28 +2,41 @@ package crypto.rules;
 
 import com.google.common.collect.Lists;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 
 	private StateNode startNode;
-	private final Collection<StateNode> nodes;
-	private final Collection<TransitionEdge> edges;
+	private final Map<String, StateNode> nodes;
+	private final List<TransitionEdge> edges;
 	private final Collection<TransitionEdge> initialEdges;
+
+	/* Adjacency indices keyed by the node names. The names are unique within a graph and,
+	 * in contrast to the nodes' hash codes, they do not change when a node is made accepting.
+	 */
+	private final Map<String, List<TransitionEdge>> outgoingEdges;
+	private final Map<String, List<TransitionEdge>> incomingEdges;
 	private int nodeNameCounter = 0;
 
 	public StateMachineGraph() {
-		nodes = new HashSet<>();
+		nodes = new LinkedHashMap<>();
 		edges = new ArrayList<>();
 		initialEdges = new ArrayList<>();
+		outgoingEdges = new HashMap<>();
+		incomingEdges = new HashMap<>();
 	}
 	
 	public StateNode createNewNode() {
 		StateNode node = new StateNode(String.valueOf(this.nodeNameCounter++), false, false);
-		this.nodes.add(node);
+		this.nodes.put(node.getName(), node);
 		return node;
 	}
 	
@@ -34,12 +47,16 @@ public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 	private Boolean addEdge(TransitionEdge edge) {
 		final StateNode right = edge.getRight();
 		final StateNode left = edge.getLeft();
-		if (!(nodes.parallelStream().anyMatch(e -> e.equals(left)) || nodes.parallelStream().anyMatch(e -> e.equals(right)))) {
+		if (!(containsNode(left) || containsNode(right))) {
 			return false;
 		}
-		if (edges.contains(edge)) {
+
+		List<TransitionEdge> edgesFromLeft = outgoingEdges.computeIfAbsent(left.getName(), k -> new ArrayList<>());
+		if (edgesFromLeft.contains(edge)) {
 			return false;
 		}
+		edgesFromLeft.add(edge);
+		incomingEdges.computeIfAbsent(right.getName(), k -> new ArrayList<>()).add(edge);
 		edges.add(edge);
 		
 		if (left.isInitialState()) {
@@ -49,19 +66,44 @@ public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 		return true;
 	}
 
+	private boolean containsNode(StateNode node) {
+		StateNode existingNode = nodes.get(node.getName());
+		return existingNode != null && existingNode.equals(node);
+	}
+
+	/**
+	 * Computes the number of hops from each node to its closest accepting state. The
+	 * distances are computed with a breadth-first search that starts in all accepting
+	 * states and follows the edges backwards, i.e. each edge is visited at most once.
+	 */
 	public void wrapUpCreation() {
-		getAcceptingStates().parallelStream().forEach(e -> {
-			e.setHopsToAccepting(0);
-			updateHops(e);
-		});
+		Deque<StateNode> worklist = new ArrayDeque<>();
+		for (StateNode node : getAcceptingStates()) {
+			node.setHopsToAccepting(0);
+			worklist.add(node);
+		}
+
+		while (!worklist.isEmpty()) {
+			StateNode node = worklist.poll();
+			int newPath = node.getHopsToAccepting() + 1;
+
+			for (TransitionEdge edge : incomingEdges.getOrDefault(node.getName(), Collections.emptyList())) {
+				StateNode predecessor = edge.getLeft();
+
+				if (predecessor.getHopsToAccepting() > newPath) {
+					predecessor.setHopsToAccepting(newPath);
+					worklist.add(predecessor);
+				}
+			}
+		}
 	}
 	
 	public Collection<TransitionEdge> getAllOutgoingEdges(StateNode node){
-		return edges.parallelStream().filter(edge -> edge.from().equals(node)).collect(Collectors.toSet());
+		return new ArrayList<>(outgoingEdges.getOrDefault(node.getName(), Collections.emptyList()));
 	}
 	
 	public void addAllOutgoingEdgesFromOneNodeToOtherNodes(StateNode node, Collection<StateNode> otherNodes) {
-		Collection<TransitionEdge> edgesFromNode = edges.parallelStream().filter(e -> node.equals(e.from())).collect(Collectors.toList());
+		Collection<TransitionEdge> edgesFromNode = getAllOutgoingEdges(node);
 		otherNodes.forEach(otherNode -> edgesFromNode.forEach(edge -> this.createNewEdge(edge.getLabel(), otherNode, edge.getLeft())));
 	}
 	
@@ -71,7 +113,10 @@ public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 	}
 	
 	public Collection<StateNode> aggregateNodesToOtherNodes(Collection<StateNode> nodesToAggr, Collection<StateNode> startNodes){
-		Collection<TransitionEdge> edgesToAnyAggrNode = edges.parallelStream().filter(e -> nodesToAggr.contains(e.to())).collect(Collectors.toList());
+		Collection<TransitionEdge> edgesToAnyAggrNode = new ArrayList<>();
+		for (StateNode node : nodesToAggr) {
+			edgesToAnyAggrNode.addAll(incomingEdges.getOrDefault(node.getName(), Collections.emptyList()));
+		}
 		// Add new edges to newNode instead of Aggr Node 
 		startNodes.forEach(node -> edgesToAnyAggrNode.forEach(edgeToAggrNode -> this.createNewEdge(edgeToAggrNode.getLabel(), edgeToAggrNode.getLeft(), node)));
 		nodesToAggr.removeAll(startNodes);
@@ -85,35 +130,46 @@ public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 	
 	private void removeNodeWithAllEdges(StateNode node) {
 		removeAllEdgesHavingNode(node);
-		nodes.remove(node);
+		nodes.remove(node.getName());
 	}
 	
 	private void removeAllEdgesHavingNode(StateNode node) {
-		Collection<TransitionEdge> filteredEdges = edges.parallelStream().filter(e -> node.equals(e.to()) || node.equals(e.from())).collect(Collectors.toList());
-		edges.removeAll(filteredEdges);
-	}
+		List<TransitionEdge> edgesFromNode = outgoingEdges.remove(node.getName());
+		List<TransitionEdge> edgesToNode = incomingEdges.remove(node.getName());
 
-	private void updateHops(StateNode node) {
-		int newPath = node.getHopsToAccepting() + 1;
-		getAllTransitions().parallelStream().forEach(e -> {
-			StateNode theNewRight = e.getLeft();
-			if (e.getRight().equals(node) && theNewRight.getHopsToAccepting() > newPath) {
-				theNewRight.setHopsToAccepting(newPath);
-				updateHops(theNewRight);
+		if (edgesFromNode != null) {
+			for (TransitionEdge edge : edgesFromNode) {
+				removeFromIndex(incomingEdges, edge.getRight(), edge);
 			}
-		});
+		}
+
+		if (edgesToNode != null) {
+			for (TransitionEdge edge : edgesToNode) {
+				removeFromIndex(outgoingEdges, edge.getLeft(), edge);
+			}
+		}
+
+		edges.removeIf(e -> node.equals(e.to()) || node.equals(e.from()));
+	}
+
+	private static void removeFromIndex(Map<String, List<TransitionEdge>> index, StateNode node, TransitionEdge edge) {
+		List<TransitionEdge> indexedEdges = index.get(node.getName());
+
+		if (indexedEdges != null) {
+			indexedEdges.remove(edge);
+		}
 	}
 
 	public Boolean addNode(StateNode node) {
 		if (node.isInitialState()) {
 			this.startNode = node;
 		}
-		return nodes.parallelStream().anyMatch(n -> n.getName().equals(node.getName())) ? false : nodes.add(node);
+		return nodes.putIfAbsent(node.getName(), node) == null;
 	}
 
 	public String toString() {
 		StringBuilder graphSB = new StringBuilder();
-		for (StateNode node : nodes) {
+		for (StateNode node : nodes.values()) {
 			graphSB.append(node.toString());
 			graphSB.append(System.lineSeparator());
 		}
@@ -127,7 +183,7 @@ public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 	}
 
 	public Collection<StateNode> getNodes() {
-		return nodes;
+		return nodes.values();
 	}
 
 	public StateNode getStartNode() {
@@ -147,7 +203,13 @@ public final class StateMachineGraph implements FiniteStateMachine<StateNode> {
 	}
 
 	public Collection<StateNode> getAcceptingStates() {
-		return nodes.parallelStream().filter(StateNode::getAccepting).collect(Collectors.toList());
+		Collection<StateNode> acceptingStates = new ArrayList<>();
+		for (StateNode node : nodes.values()) {
+			if (node.getAccepting()) {
+				acceptingStates.add(node);
+			}
+		}
+		return acceptingStates;
 	}
 
 	public Collection<TransitionEdge> getAllTransitions() {
@@ -0,0 +1,84 @@
+package crypto.typestate;
+
+import boomerang.scene.Statement;
+import typestate.finiteautomata.State;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact representation of the typestate changes of a single seed. Each {@link State}
+ * that occurs in the seed's results is compiled to a small integer id, and the states
+ * reached at a statement are stored as a {@link BitSet} over these ids.
+ */
+public class TypestateChanges {
+
+	private final Map<State, Integer> stateIds = new HashMap<>();
+	private final List<State> states = new ArrayList<>();
+	private final Map<Statement, BitSet> changes = new HashMap<>();
+
+	/**
+	 * Record that the seed reaches the given state at the given statement.
+	 *
+	 * @param statement the statement that changes the typestate
+	 * @param state the state after executing the statement
+	 * @return true if the pair was not recorded before
+	 */
+	public boolean put(Statement statement, State state) {
+		int id = getOrCreateId(state);
+		BitSet bits = changes.computeIfAbsent(statement, k -> new BitSet(states.size()));
+
+		if (bits.get(id)) {
+			return false;
+		}
+		bits.set(id);
+		return true;
+	}
+
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	public Set<Statement> getStatements() {
+		return changes.keySet();
+	}
+
+	/**
+	 * Returns the ids of the states that are reached at the given statement. The
+	 * returned set must not be modified.
+	 *
+	 * @param statement the statement
+	 * @return the state ids, or an empty set if the statement does not change the typestate
+	 */
+	public BitSet getStateIds(Statement statement) {
+		BitSet bits = changes.get(statement);
+
+		if (bits == null) {
+			return new BitSet(0);
+		}
+		return bits;
+	}
+
+	public State getState(int id) {
+		return states.get(id);
+	}
+
+	public int getNumberOfStates() {
+		return states.size();
+	}
+
+	private int getOrCreateId(State state) {
+		Integer id = stateIds.get(state);
+
+		if (id == null) {
+			id = states.size();
+			stateIds.put(state, id);
+			states.add(state);
+		}
+		return id;
+	}
+}
@@ -108,6 +108,7 @@ public abstract class UsagePatternTestingFramework extends AbstractTestingFramew
 				scanner.addResultsListener(resultsListener);
 
 				scanner.scan();
+				afterScan(scanner);
 
 				// Evaluate results
 				List<Assertion> unsound = Lists.newLinkedList();
@@ -141,6 +142,15 @@ public abstract class UsagePatternTestingFramework extends AbstractTestingFramew
 
 	protected abstract String getRulesetPath();
 
+	/**
+	 * Called after the scanner analyzed the test method. The Soot scene of the test is still
+	 * available, so tests may inspect the scanner's statistics or run additional queries.
+	 *
+	 * @param scanner the scanner that analyzed the test method
+	 */
+	protected void afterScan(CryptoScanner scanner) {
+	}
+
 	@Override
 	public List<String> getIncludeList() {
 		return new ArrayList<>();
@@ -0,0 +1,90 @@
+package test.finitestatemachine;
+
+import crypto.cryslhandler.CrySLModelReader;
+import crypto.exceptions.CryptoAnalysisException;
+import crypto.rules.CrySLRule;
+import crypto.rules.StateMachineGraph;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Loads synthetic rules with hundreds of events through the rule reader and logs the time to build
+ * their state machines. The ORDER section is a sequence 'e0+, e1?, e2+, e3?, ...', so the number of
+ * nodes and edges grows linearly with the number of events, and so should the build time. There is
+ * no assertion on the time, so the benchmark is not part of the default test run. Run it with
+ * 'mvn test -Dtest=StateMachineGraphBenchmark' and compare the logged times per event.
+ */
+public class StateMachineGraphBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StateMachineGraphBenchmark.class);
+
+	private static final int[] ORDER_SIZES = {100, 200, 400, 800};
+	private static final int WARMUP_RUNS = 3;
+	private static final int MEASURED_RUNS = 5;
+
+	private final CrySLModelReader reader = new CrySLModelReader();
+	private int ruleCounter = 0;
+
+	@Test
+	public void ruleLoadingScalesLinearly() throws IOException, CryptoAnalysisException {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			for (int events : ORDER_SIZES) {
+				readSyntheticRule(events);
+			}
+		}
+
+		for (int events : ORDER_SIZES) {
+			long bestReadTime = Long.MAX_VALUE;
+			long bestHopTime = Long.MAX_VALUE;
+
+			for (int i = 0; i < MEASURED_RUNS; i++) {
+				long start = System.nanoTime();
+				StateMachineGraph smg = readSyntheticRule(events).getUsagePattern();
+				bestReadTime = Math.min(bestReadTime, System.nanoTime() - start);
+
+				start = System.nanoTime();
+				smg.wrapUpCreation();
+				bestHopTime = Math.min(bestHopTime, System.nanoTime() - start);
+
+				// The initial node, the node after the constructor and one node per event
+				Assert.assertEquals(events + 2, smg.getNodes().size());
+			}
+
+			LOGGER.info("ORDER with {} events: rule loaded in {} ms ({} us per event), hops computed in {} us", events, bestReadTime / 1_000_000, bestReadTime / 1_000 / events, bestHopTime / 1_000);
+		}
+	}
+
+	private CrySLRule readSyntheticRule(int events) throws IOException, CryptoAnalysisException {
+		// Each rule needs its own resource name, otherwise the reader returns the cached resource
+		String fileName = "synthetic" + ruleCounter++ + CrySLModelReader.cryslFileEnding;
+
+		try (InputStream stream = new ByteArrayInputStream(createRule(events).getBytes(StandardCharsets.UTF_8))) {
+			return reader.readRule(stream, fileName);
+		}
+	}
+
+	private static String createRule(int events) {
+		StringBuilder rule = new StringBuilder();
+		rule.append("SPEC ").append(SyntheticRuleTarget.class.getName()).append("\n\n");
+
+		rule.append("EVENTS\n");
+		rule.append("    Con: SyntheticRuleTarget();\n");
+		for (int i = 0; i < events; i++) {
+			rule.append("    e").append(i).append(": event();\n");
+		}
+
+		rule.append("\nORDER\n    Con");
+		for (int i = 0; i < events; i++) {
+			rule.append(", e").append(i).append(i % 2 == 0 ? "+" : "?");
+		}
+		rule.append("\n");
+		return rule.toString();
+	}
+}
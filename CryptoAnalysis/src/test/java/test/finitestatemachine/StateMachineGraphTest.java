@@ -0,0 +1,172 @@
+package test.finitestatemachine;
+
+import crypto.cryslhandler.RulesetReader;
+import crypto.rules.CrySLRule;
+import crypto.rules.StateMachineGraph;
+import crypto.rules.StateNode;
+import crypto.rules.TransitionEdge;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Checks the indexed queries of the {@link StateMachineGraph} against the graphs that the
+ * StateMachineGraphBuilder creates for the rules.
+ */
+public class StateMachineGraphTest {
+
+	@Test
+	public void operationsGraph() {
+		// ORDER Con, op1, op2, op3, op4*
+		StateMachineGraph smg = readRule(TestConstants.RULES_TEST_DIR + "incompleteOperation", "Operations").getUsagePattern();
+
+		// The initial node, one node per event and a loop for op4
+		Assert.assertEquals(6, smg.getNodes().size());
+		Assert.assertEquals(6, smg.getAllTransitions().size());
+		Assert.assertEquals(1, smg.getInitialTransitions().size());
+
+		Set<String> acceptingStates = smg.getAcceptingStates().stream().map(StateNode::getName).collect(Collectors.toSet());
+		Assert.assertEquals(new HashSet<>(Arrays.asList("3", "4")), acceptingStates);
+
+		StateNode op4Node = getNode(smg, "4");
+		Collection<TransitionEdge> op4Edges = smg.getAllOutgoingEdges(op4Node);
+		Assert.assertEquals(1, op4Edges.size());
+		Assert.assertEquals(op4Node, op4Edges.iterator().next().to());
+
+		smg.wrapUpCreation();
+		Map<String, Integer> expectedHops = new HashMap<>();
+		expectedHops.put("-1", 4);
+		expectedHops.put("0", 3);
+		expectedHops.put("1", 2);
+		expectedHops.put("2", 1);
+		expectedHops.put("3", 0);
+		expectedHops.put("4", 0);
+
+		for (StateNode node : smg.getNodes()) {
+			Assert.assertEquals(node.getName(), (int) expectedHops.get(node.getName()), node.getHopsToAccepting());
+		}
+	}
+
+	@Test
+	public void outgoingEdgesMatchTransitions() {
+		for (CrySLRule rule : readRules(TestConstants.JCA_RULESET_PATH)) {
+			StateMachineGraph smg = rule.getUsagePattern();
+			Collection<TransitionEdge> transitions = smg.getAllTransitions();
+
+			Assert.assertEquals(rule.getClassName(), new HashSet<>(transitions).size(), transitions.size());
+
+			for (StateNode node : smg.getNodes()) {
+				Set<TransitionEdge> expected = transitions.stream().filter(e -> e.from().equals(node)).collect(Collectors.toSet());
+				Collection<TransitionEdge> actual = smg.getAllOutgoingEdges(node);
+
+				Assert.assertEquals(rule.getClassName(), expected.size(), actual.size());
+				Assert.assertEquals(rule.getClassName(), expected, new HashSet<>(actual));
+			}
+
+			Set<TransitionEdge> initialTransitions = transitions.stream().filter(e -> e.from().isInitialState()).collect(Collectors.toSet());
+			Assert.assertTrue(rule.getClassName(), smg.getInitialTransitions().containsAll(initialTransitions));
+		}
+	}
+
+	@Test
+	public void hopsToAcceptingMatchShortestPaths() {
+		for (CrySLRule rule : readRules(TestConstants.JCA_RULESET_PATH)) {
+			StateMachineGraph smg = rule.getUsagePattern();
+			smg.wrapUpCreation();
+
+			// Relax all transitions until the distances do not change anymore
+			Map<StateNode, Integer> expectedHops = new HashMap<>();
+			for (StateNode node : smg.getNodes()) {
+				expectedHops.put(node, node.getAccepting() ? 0 : Integer.MAX_VALUE);
+			}
+
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (TransitionEdge edge : smg.getAllTransitions()) {
+					int hopsFromRight = expectedHops.getOrDefault(edge.to(), Integer.MAX_VALUE);
+					if (hopsFromRight == Integer.MAX_VALUE) {
+						continue;
+					}
+
+					if (expectedHops.getOrDefault(edge.from(), Integer.MAX_VALUE) > hopsFromRight + 1) {
+						expectedHops.put(edge.from(), hopsFromRight + 1);
+						changed = true;
+					}
+				}
+			}
+
+			for (StateNode node : smg.getNodes()) {
+				Assert.assertEquals(rule.getClassName() + " " + node.getName(), (int) expectedHops.get(node), node.getHopsToAccepting());
+			}
+		}
+	}
+
+	@Test
+	public void cipherPaths() {
+		StateMachineGraph smg = readRule(TestConstants.JCA_RULESET_PATH, "javax.crypto.Cipher").getUsagePattern();
+
+		Assert.assertTrue(isAcceptedPath(smg, Arrays.asList("getInstance", "init", "doFinal")));
+		Assert.assertTrue(isAcceptedPath(smg, Arrays.asList("getInstance", "init", "init", "update", "doFinal")));
+		Assert.assertFalse(isAcceptedPath(smg, Arrays.asList("getInstance", "doFinal")));
+		Assert.assertFalse(isAcceptedPath(smg, Arrays.asList("getInstance", "init")));
+	}
+
+	private static boolean isAcceptedPath(StateMachineGraph smg, List<String> events) {
+		Set<StateNode> current = new HashSet<>();
+		current.add(smg.getStartNode());
+
+		for (String event : events) {
+			Set<StateNode> next = new HashSet<>();
+			for (StateNode node : current) {
+				for (TransitionEdge edge : smg.getAllOutgoingEdges(node)) {
+					if (edge.getLabel().stream().anyMatch(label -> label.getShortMethodName().equals(event))) {
+						next.add(edge.to());
+					}
+				}
+			}
+
+			if (next.isEmpty()) {
+				return false;
+			}
+			current = next;
+		}
+		return current.stream().anyMatch(StateNode::getAccepting);
+	}
+
+	private static StateNode getNode(StateMachineGraph smg, String name) {
+		for (StateNode node : smg.getNodes()) {
+			if (node.getName().equals(name)) {
+				return node;
+			}
+		}
+		throw new AssertionError("No node " + name);
+	}
+
+	private static CrySLRule readRule(String path, String className) {
+		for (CrySLRule rule : readRules(path)) {
+			if (rule.getClassName().equals(className) || rule.getClassName().endsWith("." + className)) {
+				return rule;
+			}
+		}
+		throw new AssertionError("No rule for " + className);
+	}
+
+	private static Collection<CrySLRule> readRules(String path) {
+		try {
+			return new RulesetReader().readRulesFromPath(path);
+		} catch (IOException e) {
+			throw new RuntimeException(e.getMessage());
+		}
+	}
+}
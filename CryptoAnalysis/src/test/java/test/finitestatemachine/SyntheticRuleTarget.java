@@ -0,0 +1,9 @@
+package test.finitestatemachine;
+
+/**
+ * Class of the synthetic rules in the {@link StateMachineGraphBenchmark}.
+ */
+public class SyntheticRuleTarget {
+
+	public void event() {}
+}
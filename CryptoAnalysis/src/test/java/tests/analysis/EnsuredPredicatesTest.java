@@ -0,0 +1,87 @@
+package tests.analysis;
+
+import com.google.common.collect.HashMultimap;
+import crypto.analysis.EnsuredCrySLPredicate;
+import crypto.analysis.EnsuredPredicates;
+import crypto.analysis.HiddenPredicate;
+import crypto.analysis.PredicateIds;
+import crypto.rules.CrySLObject;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.ICrySLPredicateParameter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks that the bitset storage of the ensured predicates keeps the same predicates as the hash set
+ * that stored them before.
+ */
+public class EnsuredPredicatesTest {
+
+	private static final CrySLObject THIS = new CrySLObject("this", "null");
+	private static final CrySLObject KEY = new CrySLObject("key", "javax.crypto.SecretKey");
+
+	@Test
+	public void ensuredAndHiddenPredicates() {
+		PredicateIds predicateIds = new PredicateIds();
+		EnsuredPredicates ensuredPredicates = new EnsuredPredicates();
+		Set<EnsuredCrySLPredicate> expectedPredicates = new HashSet<>();
+
+		// Same name, different parameters
+		CrySLPredicate onThis = createPredicate("generatedKey", THIS);
+		CrySLPredicate onKey = createPredicate("generatedKey", KEY);
+		CrySLPredicate onThisCopy = createPredicate("generatedKey", THIS);
+
+		List<EnsuredCrySLPredicate> predicates = Arrays.asList(
+				ensured(onThis),
+				ensured(onKey),
+				hidden(onThis),
+				hidden(onKey),
+				ensured(onThisCopy),
+				hidden(onThisCopy),
+				ensured(onKey));
+
+		for (EnsuredCrySLPredicate predicate : predicates) {
+			int predicateId = predicateIds.getId(predicate.getPredicate());
+			Assert.assertEquals(expectedPredicates.add(predicate), ensuredPredicates.add(predicateId, predicate));
+		}
+
+		Assert.assertEquals(4, expectedPredicates.size());
+		Assert.assertEquals(expectedPredicates, new HashSet<>(ensuredPredicates.getPredicates()));
+	}
+
+	@Test
+	public void predicatesCreatedDuringTheAnalysis() {
+		PredicateIds predicateIds = new PredicateIds();
+
+		CrySLPredicate onThis = createPredicate("generatedKey", THIS);
+		CrySLPredicate onKey = createPredicate("generatedKey", KEY);
+
+		int thisId = predicateIds.getId(onThis);
+		int keyId = predicateIds.getId(onKey);
+		Assert.assertNotEquals(thisId, keyId);
+
+		// Copies with the same components get the same id and do not grow the table
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(keyId, predicateIds.getId(createPredicate("generatedKey", KEY)));
+		}
+		Assert.assertEquals(2, predicateIds.size());
+	}
+
+	private static CrySLPredicate createPredicate(String name, ICrySLPredicateParameter parameter) {
+		return new CrySLPredicate(null, name, Collections.singletonList(parameter), false);
+	}
+
+	private static EnsuredCrySLPredicate ensured(CrySLPredicate predicate) {
+		return new EnsuredCrySLPredicate(predicate, HashMultimap.create());
+	}
+
+	private static HiddenPredicate hidden(CrySLPredicate predicate) {
+		return new HiddenPredicate(predicate, HashMultimap.create(), null, HiddenPredicate.HiddenPredicateType.ConstraintsAreNotSatisfied);
+	}
+}
@@ -0,0 +1,80 @@
+package tests.analysis;
+
+import crypto.analysis.CryptoScanner;
+import crypto.analysis.PredicateFixpoint;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+
+public class PredicateFixpointTest extends UsagePatternTestingFramework {
+
+	// randomized -> generatedKey / preparedGCM -> encrypted
+	private static final int CHAIN_LENGTH = 3;
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		PredicateFixpoint fixpoint = scanner.getPredicateFixpoint();
+		int seeds = scanner.getAnalysisSeedsWithSpec().size();
+
+		// Each recomputation is caused by an arrival, and each round propagates the predicates one link
+		// further along the chain
+		Assert.assertTrue(fixpoint.getIterations() <= fixpoint.getArrivals());
+		Assert.assertTrue(fixpoint.getRounds() <= CHAIN_LENGTH);
+		Assert.assertTrue(fixpoint.getIterations() <= (long) fixpoint.getRounds() * seeds);
+	}
+
+	@Test
+	public void predicateChain() throws GeneralSecurityException {
+		SecureRandom keyRand = SecureRandom.getInstanceStrong();
+		Assertions.hasEnsuredPredicate(keyRand);
+
+		KeyGenerator keygen = KeyGenerator.getInstance("AES");
+		keygen.init(128, keyRand);
+		SecretKey key = keygen.generateKey();
+		Assertions.hasEnsuredPredicate(key);
+		Assertions.mustBeInAcceptingState(keygen);
+
+		byte[] iv = new byte[32];
+		SecureRandom.getInstanceStrong().nextBytes(iv);
+		GCMParameterSpec spec = new GCMParameterSpec(96, iv);
+
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+		byte[] encText = cipher.doFinal("".getBytes());
+		Assertions.hasEnsuredPredicate(encText);
+		Assertions.mustBeInAcceptingState(cipher);
+
+		Assertions.predicateErrors(0);
+	}
+
+	@Test
+	public void brokenPredicateChain() throws GeneralSecurityException {
+		SecureRandom encRand = SecureRandom.getInstanceStrong();
+
+		KeyGenerator keygen = KeyGenerator.getInstance("AES");
+		keygen.init(128, null);
+		SecretKey key = keygen.generateKey();
+		Assertions.notHasEnsuredPredicate(key);
+		Assertions.mustBeInAcceptingState(keygen);
+
+		Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+		cipher.init(Cipher.ENCRYPT_MODE, key, encRand);
+		byte[] encText = cipher.doFinal("".getBytes());
+		Assertions.notHasEnsuredPredicate(encText);
+		Assertions.mustBeInAcceptingState(cipher);
+	}
+}
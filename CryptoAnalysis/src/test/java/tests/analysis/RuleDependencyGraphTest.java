@@ -0,0 +1,92 @@
+package tests.analysis;
+
+import crypto.analysis.RuleDependencyGraph;
+import crypto.rules.CrySLObject;
+import crypto.rules.CrySLPredicate;
+import crypto.rules.CrySLRule;
+import crypto.rules.ISLConstraint;
+import crypto.rules.StateMachineGraph;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class RuleDependencyGraphTest {
+
+	@Test
+	public void ranksFollowPredicateChain() {
+		// randomized -> generatedKey -> encrypted
+		CrySLRule random = createRule("Random", Collections.emptyList(), Collections.singletonList("randomized"));
+		CrySLRule keyGenerator = createRule("KeyGenerator", Collections.singletonList("randomized"), Collections.singletonList("generatedKey"));
+		CrySLRule cipher = createRule("Cipher", Collections.singletonList("generatedKey"), Collections.singletonList("encrypted"));
+
+		RuleDependencyGraph graph = new RuleDependencyGraph(Arrays.asList(cipher, keyGenerator, random));
+
+		Assert.assertEquals(3, graph.size());
+		Assert.assertEquals(0, graph.getRank(random));
+		Assert.assertEquals(1, graph.getRank(keyGenerator));
+		Assert.assertEquals(2, graph.getRank(cipher));
+	}
+
+	@Test
+	public void independentRulesAreOrderedByClassName() {
+		CrySLRule b = createRule("B", Collections.emptyList(), Collections.emptyList());
+		CrySLRule a = createRule("A", Collections.emptyList(), Collections.emptyList());
+		CrySLRule c = createRule("C", Collections.emptyList(), Collections.emptyList());
+
+		RuleDependencyGraph graph = new RuleDependencyGraph(Arrays.asList(b, c, a));
+
+		Assert.assertEquals(0, graph.getRank(a));
+		Assert.assertEquals(1, graph.getRank(b));
+		Assert.assertEquals(2, graph.getRank(c));
+	}
+
+	@Test
+	public void cycleIsBrokenAtFirstClassName() {
+		// X and Y require the predicate of each other, and Z depends on the cycle
+		CrySLRule y = createRule("Y", Collections.singletonList("q"), Collections.singletonList("p"));
+		CrySLRule x = createRule("X", Collections.singletonList("p"), Collections.singletonList("q"));
+		CrySLRule z = createRule("Z", Collections.singletonList("p"), Collections.emptyList());
+
+		RuleDependencyGraph graph = new RuleDependencyGraph(Arrays.asList(z, y, x));
+
+		Assert.assertEquals(3, graph.size());
+		Assert.assertEquals(0, graph.getRank(x));
+		Assert.assertEquals(1, graph.getRank(y));
+		Assert.assertEquals(2, graph.getRank(z));
+	}
+
+	@Test
+	public void unknownRulesComeLast() {
+		CrySLRule a = createRule("A", Collections.emptyList(), Collections.singletonList("p"));
+		CrySLRule b = createRule("B", Collections.singletonList("p"), Collections.emptyList());
+		CrySLRule unknown = createRule("Unknown", Collections.emptyList(), Collections.emptyList());
+
+		RuleDependencyGraph graph = new RuleDependencyGraph(Arrays.asList(a, b));
+
+		Assert.assertEquals(graph.size(), graph.getRank(unknown));
+		Assert.assertTrue(graph.getRank(b) < graph.getRank(unknown));
+	}
+
+	private static CrySLRule createRule(String className, Collection<String> required, Collection<String> ensured) {
+		List<ISLConstraint> constraints = new ArrayList<>();
+		for (String name : required) {
+			constraints.add(createPredicate(name));
+		}
+
+		List<CrySLPredicate> predicates = new ArrayList<>();
+		for (String name : ensured) {
+			predicates.add(createPredicate(name));
+		}
+
+		return new CrySLRule("tests.analysis." + className, Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), new StateMachineGraph(), constraints, predicates, Collections.emptyList());
+	}
+
+	private static CrySLPredicate createPredicate(String name) {
+		return new CrySLPredicate(null, name, Collections.singletonList(new CrySLObject("this", "null")), false);
+	}
+}
@@ -0,0 +1,81 @@
+package tests.analysis;
+
+import boomerang.scene.ControlFlowGraph;
+import boomerang.scene.Method;
+import boomerang.scene.Statement;
+import boomerang.scene.jimple.JimpleMethod;
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.CryptoScanner;
+import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.SeedIndex;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+public class SeedIndexTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		SeedIndex seedIndex = scanner.getSeedIndex();
+		Collection<IAnalysisSeed> seeds = scanner.getDiscoveredSeeds();
+		Method method = JimpleMethod.of(sootTestMethod);
+
+		Assert.assertFalse(seedIndex.getSeedsWithSpec().isEmpty());
+
+		// Each lookup returns the same seeds as a pass over all seeds
+		for (Statement statement : method.getStatements()) {
+			Set<IAnalysisSeed> seedsAtOrigin = new HashSet<>();
+			Set<AnalysisSeedWithSpecification> seedsWithResults = new HashSet<>();
+
+			for (IAnalysisSeed seed : seeds) {
+				if (seed.getOrigin().equals(statement)) {
+					seedsAtOrigin.add(seed);
+
+					Set<IAnalysisSeed> seedsWithFact = new HashSet<>();
+					for (IAnalysisSeed other : seeds) {
+						if (other.getOrigin().equals(statement) && other.getFact().equals(seed.getFact())) {
+							seedsWithFact.add(other);
+						}
+					}
+					Assert.assertEquals(seedsWithFact, new HashSet<>(seedIndex.getSeeds(statement, seed.getFact())));
+				}
+
+				if (seed instanceof AnalysisSeedWithSpecification && seed.getAnalysisResults() != null) {
+					for (ControlFlowGraph.Edge edge : seed.getAnalysisResults().asStatementValWeightTable().rowKeySet()) {
+						if (edge.getStart().equals(statement)) {
+							seedsWithResults.add((AnalysisSeedWithSpecification) seed);
+						}
+					}
+				}
+			}
+
+			Assert.assertEquals(seedsAtOrigin, new HashSet<>(seedIndex.getSeedsAtOrigin(statement)));
+			Assert.assertEquals(seedsWithResults, new HashSet<>(seedIndex.getSeedsWithResultsAt(statement)));
+		}
+	}
+
+	@Test
+	public void seedLookups() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		keyGenerator.init(128);
+		SecretKey key = keyGenerator.generateKey();
+
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, key);
+		cipher.doFinal(new byte[]{});
+	}
+}
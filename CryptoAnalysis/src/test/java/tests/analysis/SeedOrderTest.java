@@ -0,0 +1,89 @@
+package tests.analysis;
+
+import crypto.analysis.AnalysisSeedWithSpecification;
+import crypto.analysis.CryptoScanner;
+import crypto.analysis.IAnalysisSeed;
+import crypto.analysis.RuleDependencyGraph;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+import tests.error.predicate.requiredpredicatetracker.Source;
+import tests.error.predicate.requiredpredicatetracker.Target;
+import tests.error.predicate.requiredpredicatetracker.User;
+
+public class SeedOrderTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.RULES_TEST_DIR + "requiredPredicateTracker";
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		RuleDependencyGraph graph = scanner.getRuleDependencyGraph();
+		IAnalysisSeed previous = null;
+		boolean sourceExecuted = false;
+
+		// The seeds are executed in the order of their discovery in the scanner
+		for (IAnalysisSeed seed : scanner.getDiscoveredSeeds()) {
+			if (seed instanceof AnalysisSeedWithSpecification) {
+				String className = ((AnalysisSeedWithSpecification) seed).getSpecification().getClassName();
+
+				if (className.equals(Source.class.getName())) {
+					sourceExecuted = true;
+				} else if (className.equals(User.class.getName())) {
+					Assert.assertTrue(sourceExecuted);
+				}
+			}
+
+			if (previous != null) {
+				int previousRank = getRank(graph, previous);
+				int rank = getRank(graph, seed);
+				Assert.assertTrue(previousRank <= rank);
+
+				// Seeds with the same rank are ordered by their method and line number
+				if (previousRank == rank) {
+					int methodOrder = previous.getMethod().toString().compareTo(seed.getMethod().toString());
+					Assert.assertTrue(methodOrder <= 0);
+
+					if (methodOrder == 0) {
+						Assert.assertTrue(previous.getOrigin().getStartLineNumber() <= seed.getOrigin().getStartLineNumber());
+					}
+				}
+			}
+			previous = seed;
+		}
+	}
+
+	private static int getRank(RuleDependencyGraph graph, IAnalysisSeed seed) {
+		if (seed instanceof AnalysisSeedWithSpecification) {
+			return graph.getRank(((AnalysisSeedWithSpecification) seed).getSpecification());
+		}
+		return -1;
+	}
+
+	@Test
+	public void seedsOfSameRank() {
+		Source source = new Source();
+
+		User user1 = new User();
+		Target target1 = source.generatePred1Target();
+		target1.doNothing();
+		user1.requirePositive(target1);
+
+		Target target2 = createTarget(source);
+		target2.doNothing();
+		User user2 = new User();
+		user2.requirePositive(target2);
+
+		Target target3 = source.generateTarget();
+		target3.doNothing();
+	}
+
+	private Target createTarget(Source source) {
+		Target target = source.generatePred1Target();
+		target.doNothing();
+		return target;
+	}
+}
@@ -0,0 +1,52 @@
+package tests.constraints;
+
+import crypto.analysis.CryptoScanner;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+
+public class ConstraintOutcomeCacheTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		// The satisfied constraints of one of the first two seeds are reused for the other one
+		Assert.assertTrue(scanner.getConstraintOutcomeCache().getHits() > 0);
+	}
+
+	@Test
+	public void cachedOutcomes() throws GeneralSecurityException {
+		KeyGenerator first = KeyGenerator.getInstance("AES");
+		first.init(128);
+		SecretKey firstKey = first.generateKey();
+		Assertions.hasEnsuredPredicate(firstKey);
+
+		KeyGenerator second = KeyGenerator.getInstance("AES");
+		second.init(128);
+		SecretKey secondKey = second.generateKey();
+		Assertions.hasEnsuredPredicate(secondKey);
+
+		// Violated constraints are not cached, so each seed reports its own error
+		KeyGenerator third = KeyGenerator.getInstance("AES");
+		third.init(100);
+		SecretKey thirdKey = third.generateKey();
+		Assertions.notHasEnsuredPredicate(thirdKey);
+
+		KeyGenerator fourth = KeyGenerator.getInstance("AES");
+		fourth.init(100);
+		SecretKey fourthKey = fourth.generateKey();
+		Assertions.notHasEnsuredPredicate(fourthKey);
+
+		Assertions.constraintErrors(2);
+	}
+}
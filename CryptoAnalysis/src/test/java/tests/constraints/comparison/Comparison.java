@@ -0,0 +1,16 @@
+package tests.constraints.comparison;
+
+public class Comparison {
+
+	public void equal(int left, int right) {}
+
+	public void notEqual(int left, int right) {}
+
+	public void less(int left, int right) {}
+
+	public void lessOrEqual(int left, int right) {}
+
+	public void greater(int left, int right) {}
+
+	public void greaterOrEqual(int left, int right) {}
+}
@@ -0,0 +1,148 @@
+package tests.constraints.comparison;
+
+import crypto.analysis.CryptoScanner;
+import crypto.analysis.errors.AbstractError;
+import crypto.analysis.errors.ConstraintError;
+import crypto.extractparameter.CallSiteWithExtractedValue;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Each left value is compared against all values of the right side. The witness of a violated
+ * comparison is the left value.
+ */
+public class ComparisonConstraintTest extends UsagePatternTestingFramework {
+
+	private static final Map<String, Set<Integer>> WITNESSES = new HashMap<>();
+
+	static {
+		WITNESSES.put("equal", Collections.singleton(100));
+		WITNESSES.put("notEqualInIntegerCache", Collections.singleton(100));
+		WITNESSES.put("notEqualOutsideIntegerCache", new HashSet<>(Arrays.asList(200, 1000)));
+		WITNESSES.put("less", Collections.singleton(150));
+		WITNESSES.put("lessOrEqual", Collections.singleton(150));
+		WITNESSES.put("greater", Collections.singleton(150));
+		WITNESSES.put("greaterOrEqual", Collections.singleton(150));
+	}
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.RULES_TEST_DIR + "comparisonConstraint";
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		Set<Integer> witnesses = new HashSet<>();
+
+		for (Set<AbstractError> errors : scanner.getCollectedErrors().values()) {
+			for (AbstractError error : errors) {
+				if (!(error instanceof ConstraintError)) {
+					continue;
+				}
+
+				CallSiteWithExtractedValue witness = ((ConstraintError) error).getCallSiteWithExtractedValue();
+				Assert.assertEquals(0, witness.getCallSite().getIndex());
+				witnesses.add(witness.getVal().getValue().getIntValue());
+			}
+		}
+		Assert.assertEquals(WITNESSES.get(sootTestMethod.getName()), witnesses);
+	}
+
+	@Test
+	public void equal() {
+		Comparison holds = new Comparison();
+		holds.equal(100, 100);
+
+		Comparison violated = new Comparison();
+		violated.equal(100, getRight(100, 200));
+
+		Assertions.constraintErrors(1);
+	}
+
+	@Test
+	public void notEqualInIntegerCache() {
+		Comparison holds = new Comparison();
+		holds.notEqual(100, getRight(50, 70));
+
+		Comparison violated = new Comparison();
+		violated.notEqual(100, getRight(50, 100));
+
+		Assertions.constraintErrors(1);
+	}
+
+	@Test
+	public void notEqualOutsideIntegerCache() {
+		// Equal values outside the Integer cache were not reported when boxed values were compared
+		Comparison holds = new Comparison();
+		holds.notEqual(150, getRight(200, 300));
+
+		Comparison violated = new Comparison();
+		violated.notEqual(200, getRight(200, 300));
+
+		Comparison violatedSingle = new Comparison();
+		violatedSingle.notEqual(1000, 1000);
+
+		Assertions.constraintErrors(2);
+	}
+
+	@Test
+	public void less() {
+		Comparison holds = new Comparison();
+		holds.less(50, getRight(100, 200));
+
+		Comparison violated = new Comparison();
+		violated.less(150, getRight(100, 200));
+
+		Assertions.constraintErrors(1);
+	}
+
+	@Test
+	public void lessOrEqual() {
+		Comparison holds = new Comparison();
+		holds.lessOrEqual(100, getRight(100, 200));
+
+		Comparison violated = new Comparison();
+		violated.lessOrEqual(150, getRight(100, 200));
+
+		Assertions.constraintErrors(1);
+	}
+
+	@Test
+	public void greater() {
+		Comparison holds = new Comparison();
+		holds.greater(250, getRight(100, 200));
+
+		Comparison violated = new Comparison();
+		violated.greater(150, getRight(100, 200));
+
+		Assertions.constraintErrors(1);
+	}
+
+	@Test
+	public void greaterOrEqual() {
+		Comparison holds = new Comparison();
+		holds.greaterOrEqual(200, getRight(100, 200));
+
+		Comparison violated = new Comparison();
+		violated.greaterOrEqual(150, getRight(100, 200));
+
+		Assertions.constraintErrors(1);
+	}
+
+	private int getRight(int first, int second) {
+		if (Math.random() > 0.5) {
+			return first;
+		}
+		return second;
+	}
+}
@@ -0,0 +1,100 @@
+package tests.error.predicate.requiredpredicatetracker;
+
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+/**
+ * The required predicates are tracked incrementally when predicates arrive. The expected errors are
+ * the results of matching all ensured predicates against all required predicates after the analysis.
+ */
+public class RequiredPredicateTrackerTest extends UsagePatternTestingFramework {
+
+    @Override
+    protected String getRulesetPath() {
+        return TestConstants.RULES_TEST_DIR + "requiredPredicateTracker";
+    }
+
+    @Test
+    public void positiveRequiredPredicate() {
+        Source source = new Source();
+
+        // pred1 is ensured -> satisfied
+        Target target1 = source.generatePred1Target();
+        target1.doNothing();
+        User user1 = new User();
+        user1.requirePositive(target1);
+
+        // No predicate is ensured -> RequiredPredicateError
+        Target target2 = source.generateTarget();
+        target2.doNothing();
+        User user2 = new User();
+        user2.requirePositive(target2);
+
+        Assertions.predicateErrors(1);
+    }
+
+    @Test
+    public void negatedRequiredPredicate() {
+        Source source = new Source();
+
+        // pred1 is not ensured -> satisfied
+        Target target1 = source.generateTarget();
+        target1.doNothing();
+        User user1 = new User();
+        user1.requireNegated(target1);
+
+        // pred1 is ensured -> RequiredPredicateError
+        Target target2 = source.generatePred1Target();
+        target2.doNothing();
+        User user2 = new User();
+        user2.requireNegated(target2);
+
+        Assertions.predicateErrors(1);
+    }
+
+    @Test
+    public void alternativeRequiredPredicate() {
+        Source source = new Source();
+
+        // The second alternative pred2 is ensured -> satisfied
+        Target target1 = source.generatePred2Target();
+        target1.doNothing();
+        User user1 = new User();
+        user1.requireAlternative(target1);
+
+        // No alternative is ensured -> RequiredPredicateError
+        Target target2 = source.generateTarget();
+        target2.doNothing();
+        User user2 = new User();
+        user2.requireAlternative(target2);
+
+        Assertions.predicateErrors(1);
+    }
+
+    @Test
+    public void negatedAlternativeRequiredPredicate() {
+        Source source = new Source();
+
+        // The positive alternative pred1 is ensured -> satisfied
+        Target target1 = source.generatePred1Target();
+        target1.doNothing();
+        User user1 = new User();
+        user1.requireNegatedAlternative(target1);
+
+        // The negated alternative pred2 is not ensured -> satisfied
+        Target target2 = source.generateTarget();
+        target2.doNothing();
+        User user2 = new User();
+        user2.requireNegatedAlternative(target2);
+
+        // pred1 is not ensured and pred2 is ensured -> RequiredPredicateError
+        Target target3 = source.generatePred2Target();
+        target3.doNothing();
+        User user3 = new User();
+        user3.requireNegatedAlternative(target3);
+
+        Assertions.predicateErrors(1);
+    }
+}
@@ -0,0 +1,16 @@
+package tests.error.predicate.requiredpredicatetracker;
+
+public class Source {
+
+    public Target generatePred1Target() {
+        return new Target();
+    }
+
+    public Target generatePred2Target() {
+        return new Target();
+    }
+
+    public Target generateTarget() {
+        return new Target();
+    }
+}
@@ -0,0 +1,6 @@
+package tests.error.predicate.requiredpredicatetracker;
+
+public class Target {
+
+    public void doNothing() {}
+}
@@ -0,0 +1,12 @@
+package tests.error.predicate.requiredpredicatetracker;
+
+public class User {
+
+    public void requirePositive(Target target) {}
+
+    public void requireNegated(Target target) {}
+
+    public void requireAlternative(Target target) {}
+
+    public void requireNegatedAlternative(Target target) {}
+}
@@ -0,0 +1,164 @@
+package tests.extractparameter;
+
+import boomerang.BackwardQuery;
+import boomerang.ForwardQuery;
+import boomerang.scene.AllocVal;
+import boomerang.scene.CallGraph;
+import boomerang.scene.ControlFlowGraph;
+import boomerang.scene.DataFlowScope;
+import boomerang.scene.Method;
+import boomerang.scene.Statement;
+import boomerang.scene.Val;
+import boomerang.scene.jimple.JimpleMethod;
+import crypto.analysis.BoomerangSolverPool;
+import crypto.analysis.CryptoScanner;
+import crypto.extractparameter.ExtractedQueryResults;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+
+import javax.crypto.KeyGenerator;
+import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+public class BoomerangSolverPoolTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		if (sootTestMethod.getName().equals("timedOutSolver")) {
+			checkTimedOutSolver(scanner);
+		} else {
+			checkRetiredSolvers(scanner);
+		}
+	}
+
+	private void checkRetiredSolvers(CryptoScanner scanner) {
+		BackwardQuery query = getAlgorithmQuery();
+		BoomerangSolverPool solverPool = new BoomerangSolverPool(scanner, 2);
+
+		ExtractedQueryResults first = solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER, query, ExtractedQueryResults::of);
+		Assert.assertEquals(1, solverPool.getCreatedSolvers());
+		Assert.assertEquals(0, solverPool.getRetiredSolvers());
+
+		// The second query reaches the limit and retires the solver
+		ExtractedQueryResults second = solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER, query, ExtractedQueryResults::of);
+		Assert.assertEquals(1, solverPool.getCreatedSolvers());
+		Assert.assertEquals(1, solverPool.getRetiredSolvers());
+
+		// The third query is solved by a fresh solver
+		ExtractedQueryResults third = solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER, query, ExtractedQueryResults::of);
+		Assert.assertEquals(2, solverPool.getCreatedSolvers());
+		Assert.assertEquals(1, solverPool.getRetiredSolvers());
+		Assert.assertEquals(3, solverPool.getSolvedQueries());
+
+		// The results of the retired solver are still readable and equal to the fresh results
+		Assert.assertEquals(Collections.singleton("AES"), getAlgorithms(first));
+		Assert.assertEquals(getAlgorithms(first), getAlgorithms(second));
+		Assert.assertEquals(getAlgorithms(first), getAlgorithms(third));
+		Assert.assertEquals(first.getPropagationTypes(), third.getPropagationTypes());
+
+		solverPool.clear();
+		Assert.assertEquals(2, solverPool.getRetiredSolvers());
+	}
+
+	private void checkTimedOutSolver(CryptoScanner scanner) {
+		BackwardQuery query = getAlgorithmQuery();
+
+		// Solvers with a timeout of 1 ms cannot follow the algorithm through the recursion
+		CryptoScanner timeoutScanner = new CryptoScanner(scanner.getRuleset()) {
+
+			@Override
+			public CallGraph callGraph() {
+				return scanner.callGraph();
+			}
+
+			@Override
+			public DataFlowScope getDataFlowScope() {
+				return scanner.getDataFlowScope();
+			}
+
+			@Override
+			public int getTimeout() {
+				return 1;
+			}
+		};
+		BoomerangSolverPool solverPool = new BoomerangSolverPool(timeoutScanner);
+
+		// The solver of the timed out query is retired right away
+		ExtractedQueryResults first = solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER, query, ExtractedQueryResults::of);
+		Assert.assertTrue(first.isTimedout());
+		Assert.assertEquals(1, solverPool.getCreatedSolvers());
+		Assert.assertEquals(1, solverPool.getRetiredSolvers());
+
+		// The next query does not reuse the incomplete state and is solved by a fresh solver
+		solverPool.solve(BoomerangSolverPool.SolverType.EXTRACT_PARAMETER, query, ExtractedQueryResults::of);
+		Assert.assertEquals(2, solverPool.getCreatedSolvers());
+		Assert.assertEquals(2, solverPool.getSolvedQueries());
+
+		solverPool.clear();
+	}
+
+	@Test
+	public void retiredSolvers() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance(getAlgorithm());
+		keyGenerator.init(128);
+		keyGenerator.generateKey();
+	}
+
+	@Test
+	public void timedOutSolver() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance(getAlgorithm(50));
+		keyGenerator.init(128);
+		keyGenerator.generateKey();
+	}
+
+	private String getAlgorithm() {
+		return "AES";
+	}
+
+	private String getAlgorithm(int depth) {
+		if (depth == 0) {
+			return getAlgorithm();
+		}
+		return getAlgorithm(depth - 1);
+	}
+
+	private BackwardQuery getAlgorithmQuery() {
+		Method method = JimpleMethod.of(sootTestMethod);
+
+		for (Statement statement : method.getStatements()) {
+			if (!statement.containsInvokeExpr() || !statement.getInvokeExpr().getMethod().getName().equals("getInstance")) {
+				continue;
+			}
+
+			Val algorithm = statement.getInvokeExpr().getArg(0);
+			Statement pred = method.getControlFlowGraph().getPredsOf(statement).iterator().next();
+			return BackwardQuery.make(new ControlFlowGraph.Edge(pred, statement), algorithm);
+		}
+		throw new AssertionError("No call to getInstance in " + method);
+	}
+
+	private static Collection<String> getAlgorithms(ExtractedQueryResults results) {
+		Collection<String> algorithms = new HashSet<>();
+
+		for (ForwardQuery allocationSite : results.getAllocationSites()) {
+			Val value = allocationSite.var();
+			if (value instanceof AllocVal) {
+				value = ((AllocVal) value).getAllocVal();
+			}
+
+			if (value.isStringConstant()) {
+				algorithms.add(value.getStringValue());
+			}
+		}
+		return algorithms;
+	}
+}
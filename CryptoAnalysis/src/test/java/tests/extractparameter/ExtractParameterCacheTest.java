@@ -0,0 +1,63 @@
+package tests.extractparameter;
+
+import com.google.common.cache.CacheStats;
+import crypto.analysis.CryptoScanner;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+
+public class ExtractParameterCacheTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		CacheStats statistics = scanner.getExtractParameterCache().getStatistics();
+
+		// Each missing query is solved exactly once, and hits do not reach a solver
+		Assert.assertTrue(statistics.missCount() > 0);
+		Assert.assertEquals(statistics.missCount(), statistics.loadCount());
+		Assert.assertEquals(statistics.missCount(), scanner.getBoomerangSolverPool().getSolvedQueries());
+
+		if (sootTestMethod.getName().equals("sharedQuery")) {
+			Assert.assertTrue(statistics.hitCount() > 0);
+		} else {
+			Assert.assertEquals(0, statistics.hitCount());
+		}
+	}
+
+	@Test
+	public void sharedQuery() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		keyGenerator.init(128);
+		SecretKey key = keyGenerator.generateKey();
+
+		// Both Cipher seeds extract the key at the same call site
+		Cipher cipher;
+		if (Math.random() > 0.5) {
+			cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		} else {
+			cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+		}
+		cipher.init(Cipher.ENCRYPT_MODE, key);
+	}
+
+	@Test
+	public void uniqueQuery() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+		keyGenerator.init(128);
+		SecretKey key = keyGenerator.generateKey();
+
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, key);
+	}
+}
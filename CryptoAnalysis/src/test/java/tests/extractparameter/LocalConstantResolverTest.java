@@ -0,0 +1,86 @@
+package tests.extractparameter;
+
+import boomerang.scene.Method;
+import boomerang.scene.Statement;
+import boomerang.scene.jimple.JimpleMethod;
+import crypto.analysis.CryptoScanner;
+import crypto.extractparameter.ExtractedValue;
+import crypto.extractparameter.LocalConstantResolver;
+import crypto.extractparameter.StaticConstantTable;
+import org.junit.Assert;
+import org.junit.Test;
+import soot.Scene;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+
+import javax.crypto.KeyGenerator;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+
+public class LocalConstantResolverTest extends UsagePatternTestingFramework {
+
+	private static final String ALGORITHM;
+	private static final String OTHER_ALGORITHM;
+
+	static {
+		ALGORITHM = "AES";
+		OTHER_ALGORITHM = "HmacSHA256";
+	}
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		StaticConstantTable staticConstants = new StaticConstantTable();
+
+		// A local that is assigned a static final field with a constant value
+		Optional<ExtractedValue> fieldConstant = resolveAlgorithm("fieldConstant", staticConstants);
+		Assert.assertTrue(fieldConstant.isPresent());
+		Assert.assertEquals("AES", fieldConstant.get().getValue().getStringValue());
+
+		// Definitions that reach the call over a merge point are left to Boomerang
+		Assert.assertFalse(resolveAlgorithm("mergedConstants", staticConstants).isPresent());
+
+		// Definitions that are not constant are left to Boomerang
+		Assert.assertFalse(resolveAlgorithm("computedValue", staticConstants).isPresent());
+	}
+
+	@Test
+	public void localConstants() throws GeneralSecurityException {
+		fieldConstant();
+		mergedConstants();
+		computedValue();
+	}
+
+	private void fieldConstant() throws GeneralSecurityException {
+		String algorithm = ALGORITHM;
+		KeyGenerator.getInstance(algorithm);
+	}
+
+	private void mergedConstants() throws GeneralSecurityException {
+		String algorithm = Math.random() > 0.5 ? ALGORITHM : OTHER_ALGORITHM;
+		KeyGenerator.getInstance(algorithm);
+	}
+
+	private void computedValue() throws GeneralSecurityException {
+		KeyGenerator.getInstance(getAlgorithm());
+	}
+
+	private String getAlgorithm() {
+		return "AES";
+	}
+
+	private Optional<ExtractedValue> resolveAlgorithm(String methodName, StaticConstantTable staticConstants) {
+		Method method = JimpleMethod.of(Scene.v().getSootClass(getClass().getName()).getMethodByName(methodName));
+
+		for (Statement statement : method.getStatements()) {
+			if (statement.containsInvokeExpr() && statement.getInvokeExpr().getMethod().getName().equals("getInstance")) {
+				return LocalConstantResolver.findConstantValue(statement, statement.getInvokeExpr().getArg(0), staticConstants);
+			}
+		}
+		throw new AssertionError("No call to getInstance in " + methodName);
+	}
+}
@@ -0,0 +1,85 @@
+package tests.extractparameter;
+
+import boomerang.scene.Method;
+import boomerang.scene.Val;
+import boomerang.scene.jimple.JimpleMethod;
+import boomerang.scene.jimple.JimpleVal;
+import crypto.analysis.CryptoScanner;
+import crypto.extractparameter.StaticConstantTable;
+import org.junit.Assert;
+import org.junit.Test;
+import soot.RefType;
+import soot.Scene;
+import soot.SootClass;
+import soot.SootField;
+import soot.jimple.Jimple;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+
+import javax.crypto.KeyGenerator;
+import java.security.GeneralSecurityException;
+import java.util.Optional;
+
+public class StaticConstantTableTest extends UsagePatternTestingFramework {
+
+	private static final String TAGGED_ALGORITHM = "AES";
+	private static final String INITIALIZED_ALGORITHM;
+	private static final int INITIALIZED_KEY_SIZE;
+	private static final String CONDITIONAL_ALGORITHM;
+	private static final String COMPUTED_ALGORITHM = getAlgorithm();
+	private static String mutableAlgorithm = "AES";
+
+	static {
+		INITIALIZED_ALGORITHM = "AES";
+
+		int keySize = 128;
+		INITIALIZED_KEY_SIZE = keySize;
+
+		if (Math.random() > 0.5) {
+			CONDITIONAL_ALGORITHM = "AES";
+		} else {
+			CONDITIONAL_ALGORITHM = "DES";
+		}
+	}
+
+	@Override
+	protected String getRulesetPath() {
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		StaticConstantTable staticConstants = new StaticConstantTable();
+		SootClass testClass = Scene.v().getSootClass(getClass().getName());
+		Method method = JimpleMethod.of(sootTestMethod);
+
+		// Constants from the ConstantValue attribute and from the static initializer
+		Assert.assertEquals(Optional.of("AES"), staticConstants.getConstant(getFieldRef(testClass, "TAGGED_ALGORITHM", method), method).map(Val::getStringValue));
+		Assert.assertEquals(Optional.of("AES"), staticConstants.getConstant(getFieldRef(testClass, "INITIALIZED_ALGORITHM", method), method).map(Val::getStringValue));
+		Assert.assertEquals(Optional.of(128), staticConstants.getConstant(getFieldRef(testClass, "INITIALIZED_KEY_SIZE", method), method).map(Val::getIntValue));
+
+		// Fields with multiple or non-constant definitions and non-final fields are not constant
+		Assert.assertFalse(staticConstants.getConstant(getFieldRef(testClass, "CONDITIONAL_ALGORITHM", method), method).isPresent());
+		Assert.assertFalse(staticConstants.getConstant(getFieldRef(testClass, "COMPUTED_ALGORITHM", method), method).isPresent());
+		Assert.assertFalse(staticConstants.getConstant(getFieldRef(testClass, "mutableAlgorithm", method), method).isPresent());
+
+		// Values that are not static field references are not looked up
+		Assert.assertFalse(staticConstants.getConstant(new JimpleVal(Jimple.v().newLocal("algorithm", RefType.v("java.lang.String")), method), method).isPresent());
+	}
+
+	@Test
+	public void staticConstants() throws GeneralSecurityException {
+		KeyGenerator keyGenerator = KeyGenerator.getInstance(INITIALIZED_ALGORITHM);
+		keyGenerator.init(INITIALIZED_KEY_SIZE);
+		keyGenerator.generateKey();
+	}
+
+	private static String getAlgorithm() {
+		return "AES";
+	}
+
+	private static Val getFieldRef(SootClass sootClass, String fieldName, Method method) {
+		SootField field = sootClass.getFieldByName(fieldName);
+		return new JimpleVal(Jimple.v().newStaticFieldRef(field.makeRef()), method);
+	}
+}
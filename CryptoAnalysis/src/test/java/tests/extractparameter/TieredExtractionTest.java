@@ -0,0 +1,187 @@
+package tests.extractparameter;
+
+import crypto.extractparameter.ExtractParameterStatistics;
+import crypto.extractparameter.ExtractionTier;
+import crypto.extractparameter.TieredExtraction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TieredExtractionTest {
+
+	private static final int TIMEOUT = 1000;
+
+	@Test
+	public void tierTimeouts() {
+		Assert.assertEquals(100, ExtractionTier.BOUNDED.getTimeout(TIMEOUT));
+		Assert.assertEquals(TIMEOUT, ExtractionTier.FULL.getTimeout(TIMEOUT));
+		Assert.assertEquals(2 * TIMEOUT, ExtractionTier.DEFERRED.getTimeout(TIMEOUT));
+
+		// Small timeouts are not bounded below the minimum
+		Assert.assertEquals(50, ExtractionTier.BOUNDED.getTimeout(50));
+		Assert.assertEquals(3L * TIMEOUT, ExtractionTier.getSeedBudget(TIMEOUT, 3));
+	}
+
+	@Test
+	public void queryResolvedInBoundedTier() {
+		FakeSolver solver = new FakeSolver();
+		solver.resolveIn("q", ExtractionTier.BOUNDED, 10);
+
+		ExtractParameterStatistics statistics = new ExtractParameterStatistics();
+		Map<String, Boolean> results = solver.solve(statistics, Collections.singletonList("q"));
+
+		Assert.assertFalse(results.get("q"));
+		Assert.assertEquals(Collections.singletonList(new Call("q", ExtractionTier.BOUNDED, 100)), solver.calls);
+		Assert.assertEquals(1, statistics.getQueries(ExtractionTier.BOUNDED));
+		Assert.assertEquals(0, statistics.getQueries(ExtractionTier.FULL));
+	}
+
+	@Test
+	public void timedOutQueryIsEscalatedWithRestOfItsTimeout() {
+		FakeSolver solver = new FakeSolver();
+		solver.resolveIn("q", ExtractionTier.FULL, 300);
+
+		ExtractParameterStatistics statistics = new ExtractParameterStatistics();
+		Map<String, Boolean> results = solver.solve(statistics, Collections.singletonList("q"));
+
+		Assert.assertFalse(results.get("q"));
+		Assert.assertEquals(Arrays.asList(new Call("q", ExtractionTier.BOUNDED, 100), new Call("q", ExtractionTier.FULL, 900)), solver.calls);
+		Assert.assertEquals(1, statistics.getTimeouts(ExtractionTier.BOUNDED));
+		Assert.assertEquals(1, statistics.getQueries(ExtractionTier.FULL));
+		Assert.assertEquals(0, statistics.getTimeouts(ExtractionTier.FULL));
+	}
+
+	@Test
+	public void slowQueriesDoNotCutTimeoutOfOtherQueries() {
+		FakeSolver solver = new FakeSolver();
+		List<String> queries = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			String query = "q" + i;
+			solver.resolveIn(query, ExtractionTier.FULL, 800);
+			queries.add(query);
+		}
+
+		ExtractParameterStatistics statistics = new ExtractParameterStatistics();
+		Map<String, Boolean> results = solver.solve(statistics, queries);
+
+		// Each query is escalated with its own remaining timeout, also after the first queries used a lot of time
+		for (String query : queries) {
+			Assert.assertFalse(results.get(query));
+			Assert.assertTrue(solver.calls.contains(new Call(query, ExtractionTier.FULL, 900)));
+		}
+		Assert.assertEquals(10, statistics.getQueries(ExtractionTier.FULL));
+		Assert.assertEquals(0, statistics.getSkippedEscalations());
+	}
+
+	@Test
+	public void deferredPassUsesRemainingBudget() {
+		FakeSolver solver = new FakeSolver();
+		solver.resolveIn("fast", ExtractionTier.BOUNDED, 10);
+		solver.resolveIn("slow", ExtractionTier.DEFERRED, 500);
+
+		ExtractParameterStatistics statistics = new ExtractParameterStatistics();
+		Map<String, Boolean> results = solver.solve(statistics, Arrays.asList("fast", "slow"));
+
+		// Budget of 2000 minus 10 (fast), 100 (slow, bounded) and 900 (slow, full)
+		Assert.assertFalse(results.get("slow"));
+		Assert.assertTrue(solver.calls.contains(new Call("slow", ExtractionTier.DEFERRED, 990)));
+		Assert.assertEquals(1, statistics.getQueries(ExtractionTier.DEFERRED));
+		Assert.assertEquals(0, statistics.getSkippedEscalations());
+	}
+
+	@Test
+	public void timedOutQueryWithoutBudgetIsSkippedAndStaysTimedOut() {
+		FakeSolver solver = new FakeSolver();
+		solver.neverResolve("q");
+
+		ExtractParameterStatistics statistics = new ExtractParameterStatistics();
+		Map<String, Boolean> results = solver.solve(statistics, Collections.singletonList("q"));
+
+		// The query used its whole timeout, so there is no budget for the deferred pass, and the
+		// timeout of the last tier is reported
+		Assert.assertTrue(results.get("q"));
+		Assert.assertEquals(Arrays.asList(new Call("q", ExtractionTier.BOUNDED, 100), new Call("q", ExtractionTier.FULL, 900)), solver.calls);
+		Assert.assertEquals(1, statistics.getSkippedEscalations());
+		Assert.assertEquals(1, statistics.getTimeouts(ExtractionTier.FULL));
+		Assert.assertEquals(0, statistics.getQueries(ExtractionTier.DEFERRED));
+	}
+
+	/**
+	 * Solver that advances a fake clock by the time a query takes. A query times out in each tier
+	 * before its resolving tier and uses its whole timeout there.
+	 */
+	private static class FakeSolver implements TieredExtraction.TierSolver<String, Boolean> {
+
+		private final Map<String, ExtractionTier> resolvingTiers = new HashMap<>();
+		private final Map<String, Integer> resolvingTimes = new HashMap<>();
+		private final List<Call> calls = new ArrayList<>();
+		private long time = 0;
+
+		void resolveIn(String query, ExtractionTier tier, int resolvingTime) {
+			resolvingTiers.put(query, tier);
+			resolvingTimes.put(query, resolvingTime);
+		}
+
+		void neverResolve(String query) {
+			resolvingTiers.remove(query);
+		}
+
+		Map<String, Boolean> solve(ExtractParameterStatistics statistics, List<String> queries) {
+			TieredExtraction<String, Boolean> extraction = new TieredExtraction<>(TIMEOUT, this, timedOut -> timedOut, statistics, () -> time);
+			return extraction.solve(queries);
+		}
+
+		@Override
+		public Boolean solve(String query, ExtractionTier tier, int timeout) {
+			calls.add(new Call(query, tier, timeout));
+
+			ExtractionTier resolvingTier = resolvingTiers.get(query);
+			if (resolvingTier != null && tier.compareTo(resolvingTier) >= 0 && resolvingTimes.get(query) <= timeout) {
+				time += resolvingTimes.get(query);
+				return false;
+			}
+
+			time += timeout;
+			return true;
+		}
+	}
+
+	private static class Call {
+
+		private final String query;
+		private final ExtractionTier tier;
+		private final int timeout;
+
+		Call(String query, ExtractionTier tier, int timeout) {
+			this.query = query;
+			this.tier = tier;
+			this.timeout = timeout;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Call)) {
+				return false;
+			}
+
+			Call other = (Call) obj;
+			return query.equals(other.query) && tier == other.tier && timeout == other.timeout;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * query.hashCode() + tier.hashCode()) + timeout;
+		}
+
+		@Override
+		public String toString() {
+			return query + " in " + tier + " with " + timeout;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package tests.forbiddenmethods;
+
+import crypto.analysis.CryptoScanner;
+import crypto.analysis.errors.AbstractError;
+import crypto.analysis.errors.ForbiddenMethodError;
+import org.junit.Assert;
+import org.junit.Test;
+import test.TestConstants;
+import test.UsagePatternTestingFramework;
+import test.assertions.Assertions;
+
+import javax.crypto.spec.PBEKeySpec;
+import java.util.Set;
+
+public class ForbiddenMethodSweepTest extends UsagePatternTestingFramework {
+
+	@Override
+	protected String getRulesetPath() {
+		// The JCA rules forbid only constructors, so calls through a super type need their own rule
+		if (sootTestMethod.getName().equals("forbiddenMethodCalledThroughSupertype")) {
+			return TestConstants.RULES_TEST_DIR + "forbiddenMethodSweep";
+		}
+		return TestConstants.JCA_RULESET_PATH;
+	}
+
+	@Override
+	protected void afterScan(CryptoScanner scanner) {
+		// The calls in the tests are covered by seeds, so the errors are attached to these seeds
+		for (Set<AbstractError> errors : scanner.getCollectedErrors().values()) {
+			for (AbstractError error : errors) {
+				if (error instanceof ForbiddenMethodError) {
+					Assert.assertNotNull(error.getSeed().getAnalysisResults());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void forbiddenConstructor() {
+		char[] password = "password".toCharArray();
+		PBEKeySpec keySpec = new PBEKeySpec(password);
+		Assertions.callToForbiddenMethod();
+		keySpec.clearPassword();
+
+		Assertions.forbiddenMethodErrors(1);
+	}
+
+	@Test
+	public void allowedConstructor() {
+		char[] password = "password".toCharArray();
+		PBEKeySpec keySpec = new PBEKeySpec(password, new byte[32], 10000, 256);
+		keySpec.clearPassword();
+
+		Assertions.forbiddenMethodErrors(0);
+	}
+
+	@Test
+	public void forbiddenConstructorsOfTwoObjects() {
+		char[] password = "password".toCharArray();
+		PBEKeySpec firstKeySpec = new PBEKeySpec(password);
+		Assertions.callToForbiddenMethod();
+		PBEKeySpec secondKeySpec = new PBEKeySpec(password, new byte[32], 10000);
+		Assertions.callToForbiddenMethod();
+
+		firstKeySpec.clearPassword();
+		secondKeySpec.clearPassword();
+
+		Assertions.forbiddenMethodErrors(2);
+	}
+
+	@Test
+	public void forbiddenConstructorInCallee() {
+		PBEKeySpec keySpec = createKeySpec();
+		keySpec.clearPassword();
+
+		Assertions.forbiddenMethodErrors(1);
+	}
+
+	@Test
+	public void forbiddenMethodCalledThroughSupertype() {
+		// The static type of the receiver is the super type of the rule's class
+		Service service = new ServiceImpl();
+		service.insecure();
+		Assertions.callToForbiddenMethod();
+		service.secure();
+
+		Assertions.forbiddenMethodErrors(1);
+	}
+
+	private PBEKeySpec createKeySpec() {
+		char[] password = "password".toCharArray();
+		return new PBEKeySpec(password);
+	}
+}
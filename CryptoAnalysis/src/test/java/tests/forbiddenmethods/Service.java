@@ -0,0 +1,8 @@
+package tests.forbiddenmethods;
+
+public interface Service {
+
+	void secure();
+
+	void insecure();
+}
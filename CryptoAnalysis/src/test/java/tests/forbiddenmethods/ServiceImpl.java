@@ -0,0 +1,10 @@
+package tests.forbiddenmethods;
+
+public class ServiceImpl implements Service {
+
+	@Override
+	public void secure() {}
+
+	@Override
+	public void insecure() {}
+}